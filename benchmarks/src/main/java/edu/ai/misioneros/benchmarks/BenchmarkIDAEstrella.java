@@ -0,0 +1,56 @@
+package edu.ai.misioneros.benchmarks;
+
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IDA* con su heurística por defecto. La tabla de transposición evita las
+ * revisitas dentro de cada iteración, pero cada iteración recorre de nuevo
+ * todo lo anterior (N = 1000, K = 4 tarda unos 20 s), así que se mide hasta
+ * 200x4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BenchmarkIDAEstrella {
+    @Param({ "3x2", "5x3", "10x4", "50x4", "200x4" })
+    public String instancia;
+
+    private MotorBusqueda motor;
+    private Problema problema;
+    private OpcionesBusqueda opciones;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        motor = Motores.crear("IDA*");
+        problema = Motores.problema(instancia);
+        opciones = new OpcionesBusqueda();
+        opciones.setModoRetencion(ModoRetencion.SOLO_ESTADISTICAS);
+        motor.resolver(problema, opciones);
+    }
+
+    @Benchmark
+    public void resolver(Blackhole bh) {
+        bh.consume(motor.resolver(problema, opciones));
+    }
+}
@@ -0,0 +1,71 @@
+package edu.ai.misioneros.benchmarks;
+
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Una resolución completa (motor.resolver) por invocación, con el motor ya
+ * creado y caliente: mide la búsqueda en régimen estable, sin la
+ * compilación JIT ni el arranque de hilos que incluyen los tiempos de la
+ * interfaz. Las tablas por (N, K) (GrafoEstados) se construyen en el setup.
+ * Con ARBOL_COMPLETO se construyen también los Nodo del resultado, que es
+ * lo que paga la vista.
+ * IDA* va aparte (BenchmarkIDAEstrella): es exponencial en estas instancias.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BenchmarkMotores {
+    @Param({ "A*", "Voraz", "Bidireccional", "HDA*" })
+    public String motor;
+
+    // Con K = 2 solo N <= 3 tiene solución; con K = 4 todas la tienen
+    @Param({ "3x2", "10x4", "50x4", "200x4", "1000x4" })
+    public String instancia;
+
+    @Param({ "SOLO_ESTADISTICAS", "ARBOL_COMPLETO" })
+    public ModoRetencion retencion;
+
+    private MotorBusqueda motorBusqueda;
+    private Problema problema;
+    private OpcionesBusqueda opciones;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        motorBusqueda = Motores.crear(motor);
+        problema = Motores.problema(instancia);
+        opciones = new OpcionesBusqueda();
+        opciones.setModoRetencion(retencion);
+        // Una resolución para construir las tablas del problema y los buffers del motor
+        motorBusqueda.resolver(problema, opciones);
+    }
+
+    @Benchmark
+    public void resolver(Blackhole bh) {
+        ResultadoBusqueda r = motorBusqueda.resolver(problema, opciones);
+        if (retencion == ModoRetencion.ARBOL_COMPLETO)
+            bh.consume(r.getRaiz());
+        bh.consume(r);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.ai.misioneros.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de benchmarks.jar. Acepta las mismas opciones que el
+ * Main de JMH (filtro de benchmarks, -p, -f, -wi, ...) y agrega siempre el
+ * perfilador de GC (tasa de asignación por operación) y la salida en JSON
+ * en jmh-resultados.json, para comparar antes y después de un cambio.
+ */
+public final class EjecutarBenchmarks {
+    private EjecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions linea = new CommandLineOptions(args);
+        Options opciones = new OptionsBuilder()
+                .parent(linea)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(linea.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(linea.getResult().orElse("jmh-resultados.json"))
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,47 @@
+package edu.ai.misioneros.benchmarks;
+
+import edu.ai.misioneros.algoritmoAEstrellaParalelo.AlgoritmoAEstrellaParalelo;
+import edu.ai.misioneros.algoritmoAestrella.AlgoritmoAEstrella;
+import edu.ai.misioneros.algoritmoBidireccional.AlgoritmoBidireccional;
+import edu.ai.misioneros.algoritmoIDAEstrella.AlgoritmoIDAEstrella;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.logicaVoraz.AlgoritmoVoraz;
+import edu.ai.misioneros.modelo.Problema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Motores que se pueden medir, por nombre (el mismo que en los @Param).
+ * Un motor nuevo se agrega aquí y en el @Param motor de BenchmarkMotores.
+ */
+final class Motores {
+    private static final Map<String, Supplier<MotorBusqueda>> FABRICAS = new LinkedHashMap<>();
+
+    static {
+        FABRICAS.put("A*", AlgoritmoAEstrella::new);
+        FABRICAS.put("Voraz", AlgoritmoVoraz::new);
+        FABRICAS.put("Bidireccional", AlgoritmoBidireccional::new);
+        FABRICAS.put("IDA*", AlgoritmoIDAEstrella::new);
+        FABRICAS.put("HDA*", AlgoritmoAEstrellaParalelo::new);
+    }
+
+    private Motores() {
+    }
+
+    static MotorBusqueda crear(String nombre) {
+        Supplier<MotorBusqueda> fabrica = FABRICAS.get(nombre);
+        if (fabrica == null)
+            throw new IllegalArgumentException("Motor desconocido: " + nombre + "; disponibles: " + FABRICAS.keySet());
+        return fabrica.get();
+    }
+
+    /** Instancia escrita como "NxK", por ejemplo "200x4". */
+    static Problema problema(String instancia) {
+        int x = instancia.indexOf('x');
+        if (x < 0)
+            throw new IllegalArgumentException("Instancia inválida, se esperaba NxK: " + instancia);
+        return new Problema(Integer.parseInt(instancia.substring(0, x)), Integer.parseInt(instancia.substring(x + 1)));
+    }
+}
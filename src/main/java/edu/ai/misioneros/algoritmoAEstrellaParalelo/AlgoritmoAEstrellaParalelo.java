@@ -0,0 +1,492 @@
+package edu.ai.misioneros.algoritmoAEstrellaParalelo;
+
+import edu.ai.misioneros.busqueda.CotaViajes;
+import edu.ai.misioneros.busqueda.GeneradorSucesores;
+import edu.ai.misioneros.busqueda.Heuristica;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.estructuras.ArenaNodos;
+import edu.ai.misioneros.estructuras.ColaBuckets;
+import edu.ai.misioneros.estructuras.MapaEstados;
+import edu.ai.misioneros.estructuras.MapaEstadosHash;
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A* paralelo con distribución por hash (HDA*). Cada estado tiene un hilo
+ * dueño, elegido por el hash de su código; cada hilo tiene sus propios
+ * ABIERTOS (ColaBuckets de menor f) y su mejor g por estado, y recibe los
+ * hijos que le tocan por un buzón sin bloqueos (ConcurrentLinkedQueue de
+ * lotes int[]). Los hijos de otros dueños se acumulan en lotes por destino.
+ * Terminación: un contador global suma las entradas en ABIERTOS y los
+ * mensajes aún no procesados (enviados o en lotes sin enviar). Los aumentos
+ * se suman antes de que el mensaje exista y las bajas se acumulan y se
+ * restan después, así que el contador nunca llega a 0 antes de tiempo;
+ * cuando llega, no queda trabajo en ningún hilo. Como se poda todo nodo con
+ * f >= mejor solución encontrada y la heurística es admisible, la solución
+ * encontrada entonces es óptima.
+ * Por eso la heurística por defecto es CotaViajes y siempre se extrae el
+ * menor f; con una heurística no admisible se pierde la garantía.
+ * Solo se conserva el camino solución (no hay un árbol único).
+ * Cada hilo lleva sus estadísticas (con su CPU y sus bytes asignados) y al
+ * final se suman a las del hilo que llamó.
+ * Los trabajadores corren en un pool de hilos daemon compartido por todas
+ * las instancias, que se reutilizan entre resoluciones. Un trabajador sin
+ * nada que hacer se estaciona (LockSupport.parkNanos) hasta que le llega un
+ * lote, hasta que la búsqueda termina o, como mucho, ESPERA_NS.
+ */
+public class AlgoritmoAEstrellaParalelo implements MotorBusqueda {
+    /** Mensajes por lote antes de enviarlo al buzón del dueño. */
+    private static final int TAMANO_LOTE = 64;
+    /** Cada cuántas expansiones se envían los lotes incompletos. */
+    private static final int EXPANSIONES_POR_ENVIO = 8;
+    private static final int CAMPOS = 4; // codigo, g, codigo del padre, movimiento
+    /** Lo más que espera estacionado un trabajador ocioso antes de revisar de nuevo. */
+    private static final long ESPERA_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final AtomicInteger SIGUIENTE_HILO = new AtomicInteger(1);
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "hda-" + SIGUIENTE_HILO.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda(); // usadas por resolver()
+    private Problema problema;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+
+    // Estado compartido de la resolución en curso
+    private Trabajador[] trabajadores;
+    private Heuristica heuristica;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicInteger incumbente = new AtomicInteger(); // g de la mejor solución
+    private volatile boolean detener;
+    private TokenCancelacion token;
+
+    public AlgoritmoAEstrellaParalelo() {
+        this(Problema.clasico());
+    }
+
+    public AlgoritmoAEstrellaParalelo(Problema problema) {
+        this.problema = problema;
+    }
+
+    @Override
+    public String getNombre() {
+        return "HDA*";
+    }
+
+    /** Los hilos cambian los nodos expandidos y el tiempo, aunque no la longitud. */
+    @Override
+    public String getConfiguracion() {
+        return "hilos=" + hilos;
+    }
+
+    /** Número de hilos trabajadores; por defecto uno por procesador. */
+    public void setHilos(int hilos) {
+        if (hilos < 1)
+            throw new IllegalArgumentException("Se necesita al menos un hilo: " + hilos);
+        this.hilos = hilos;
+    }
+
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        opciones.setModoRetencion(modoRetencion);
+    }
+
+    public ResultadoBusqueda resolver() {
+        return resolver(problema, opciones);
+    }
+
+    /**
+     * El límite de nodos se reparte a partes iguales entre los hilos. Una
+     * instancia resuelve un problema cada vez.
+     */
+    @Override
+    public synchronized ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
+        long inicio = System.nanoTime();
+        EstadisticasBusqueda estadisticas = new EstadisticasBusqueda(getNombre(), problema);
+        estadisticas.iniciarMedicion();
+        this.problema = problema;
+        heuristica = opciones.getHeuristica() != null ? opciones.getHeuristica() : new CotaViajes(problema.getCapacidad());
+        GeneradorSucesores generador = GeneradorSucesores.para(problema);
+        int inicial = EstadoCodificado.codificar(problema.getInicial());
+
+        int w = hilos;
+        long limitePorHilo = Math.max(1, opciones.getLimiteNodos() / w);
+        trabajadores = new Trabajador[w];
+        for (int i = 0; i < w; i++)
+            trabajadores[i] = new Trabajador(i, generador, opciones.getProfundidadMaxima(), limitePorHilo);
+        pendientes.set(1);
+        incumbente.set(Integer.MAX_VALUE);
+        detener = false;
+        token = opciones.getTokenCancelacion();
+        trabajadores[dueno(inicial)].buzon.add(new int[] { inicial, 0, -1, -1 });
+
+        Future<?>[] tareas = new Future<?>[w];
+        for (int i = 0; i < w; i++)
+            tareas[i] = POOL.submit(trabajadores[i]);
+        esperar(tareas);
+
+        if (token != null && token.isCancelado()) {
+            trabajadores = null;
+            throw new CancellationException("Búsqueda cancelada");
+        }
+
+        boolean limiteAlcanzado = false;
+        for (Trabajador t : trabajadores) {
+            t.estadisticas.setCerrados(t.idDe.tamano());
+            t.estadisticas.abiertos(t.abiertos.tamano());
+            estadisticas.sumar(t.estadisticas);
+            limiteAlcanzado |= t.limiteAlcanzado;
+        }
+
+        int gObjetivo = incumbente.get();
+        boolean resuelto = gObjetivo != Integer.MAX_VALUE && !limiteAlcanzado;
+        int longitud = resuelto ? gObjetivo + 1 : 0;
+        Supplier<ArbolBusqueda> arbol = resuelto ? vista(inicial, opciones.getModoRetencion()) : null;
+        trabajadores = null;
+        estadisticas.setProfundidadSolucion(longitud - 1);
+        estadisticas.terminarMedicion();
+        long fin = System.nanoTime();
+
+        return new ResultadoBusqueda(arbol, estadisticas, fin - inicio, longitud);
+    }
+
+    /** Espera a todos los trabajadores; si se interrumpe, los detiene y sigue esperando. */
+    private void esperar(Future<?>[] tareas) {
+        boolean interrumpido = false;
+        for (Future<?> tarea : tareas) {
+            while (true) {
+                try {
+                    tarea.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                    detenerTodos();
+                } catch (ExecutionException e) {
+                    detenerTodos();
+                    Throwable causa = e.getCause();
+                    if (causa instanceof RuntimeException)
+                        throw (RuntimeException) causa;
+                    if (causa instanceof Error)
+                        throw (Error) causa;
+                    throw new IllegalStateException(causa);
+                }
+            }
+        }
+        if (interrumpido)
+            Thread.currentThread().interrupt();
+    }
+
+    /** Pide a todos los trabajadores que terminen y despierta a los que esperan. */
+    private void detenerTodos() {
+        detener = true;
+        for (Trabajador t : trabajadores)
+            t.despertar();
+    }
+
+    /**
+     * Reconstruye el camino siguiendo el padre de cada estado en el mapa de
+     * su dueño. Los padres finales tienen g estrictamente menor, así que el
+     * recorrido termina en el estado inicial.
+     */
+    private Supplier<ArbolBusqueda> vista(int inicial, ModoRetencion modo) {
+        if (modo == ModoRetencion.SOLO_ESTADISTICAS)
+            return null;
+        int[] codigos = new int[16];
+        int[] movs = new int[16];
+        int n = 0;
+        for (int codigo = EstadoCodificado.OBJETIVO; ; ) {
+            if (n == codigos.length) {
+                codigos = Arrays.copyOf(codigos, n << 1);
+                movs = Arrays.copyOf(movs, n << 1);
+            }
+            Trabajador t = trabajadores[dueno(codigo)];
+            int id = t.idDe.obtener(codigo);
+            codigos[n] = codigo;
+            movs[n++] = t.mov[id];
+            if (codigo == inicial)
+                break;
+            codigo = t.padre[id];
+        }
+        ArenaNodos arena = new ArenaNodos(n);
+        int id = ArenaNodos.SIN_PADRE;
+        for (int i = n - 1, g = 0; i >= 0; i--, g++) {
+            int h = heuristica.estimar(codigos[i]);
+            id = arena.agregar(codigos[i], id, g, h, g + h, movs[i]);
+        }
+        return arena.vista(id, problema, ModoRetencion.SOLO_CAMINO);
+    }
+
+    private int dueno(int codigo) {
+        // fmix32: los códigos tienen bits muy estructurados
+        int h = codigo;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Integer.remainderUnsigned(h, trabajadores.length);
+    }
+
+    /** Un hilo: sus estados, sus ABIERTOS y su buzón. */
+    private final class Trabajador implements Runnable {
+        final int indice;
+        final GeneradorSucesores generador;
+        final int profundidadMaxima;
+        final long limiteNodos;
+        final ConcurrentLinkedQueue<int[]> buzon = new ConcurrentLinkedQueue<>();
+        volatile Thread hilo;       // el que corre este trabajador
+        volatile boolean esperando; // estacionado o a punto de estacionarse
+
+        // Por estado propio: índice local -> código, g, f, padre y movimiento
+        final MapaEstados idDe = new MapaEstadosHash();
+        int[] codigo = new int[256];
+        int[] g = new int[256];
+        int[] padre = new int[256];
+        int[] mov = new int[256];
+        int tamano;
+        final ColaBuckets abiertos = new ColaBuckets(false);
+
+        // Lotes salientes por destino
+        final int[][] lotes;
+        final int[] tamLote;
+
+        final int[] hijosCodigo;
+        final int[] hijosMov;
+
+        long deuda; // bajas de pendientes aún no restadas
+        long expandidos;
+        boolean limiteAlcanzado;
+        final EstadisticasBusqueda estadisticas = new EstadisticasBusqueda();
+
+        Trabajador(int indice, GeneradorSucesores generador, int profundidadMaxima, long limiteNodos) {
+            this.indice = indice;
+            this.generador = generador;
+            this.profundidadMaxima = profundidadMaxima;
+            this.limiteNodos = limiteNodos;
+            lotes = new int[hilos][TAMANO_LOTE * CAMPOS];
+            tamLote = new int[hilos];
+            hijosCodigo = new int[generador.getMaxSucesores()];
+            hijosMov = new int[generador.getMaxSucesores()];
+        }
+
+        @Override
+        public void run() {
+            hilo = Thread.currentThread();
+            estadisticas.iniciarMedicion();
+            try {
+                buscar();
+            } finally {
+                estadisticas.terminarMedicion();
+                hilo = null;
+            }
+        }
+
+        void despertar() {
+            Thread t = hilo;
+            if (t != null)
+                LockSupport.unpark(t);
+        }
+
+        /**
+         * Se estaciona hasta que llegue un lote o lo despierten. Se marca como
+         * esperando antes de revisar el buzón, y quien envía agrega el lote
+         * antes de mirar la marca: nunca se pierde un aviso.
+         */
+        private void esperarTrabajo() {
+            esperando = true;
+            if (buzon.isEmpty() && !detener)
+                LockSupport.parkNanos(this, ESPERA_NS);
+            esperando = false;
+        }
+
+        private void buscar() {
+            int desdeEnvio = 0;
+            while (!detener) {
+                if (token != null && token.isCancelado()) {
+                    detenerTodos();
+                    break;
+                }
+                int[] lote;
+                while ((lote = buzon.poll()) != null)
+                    recibir(lote, lote.length);
+
+                if (abiertos.estaVacia()) {
+                    enviarTodo();
+                    saldar();
+                    if (pendientes.get() == 0) {
+                        // Terminó la búsqueda: que los demás no esperen a ESPERA_NS
+                        detenerTodos();
+                        break;
+                    }
+                    esperarTrabajo();
+                    continue;
+                }
+
+                int id = abiertos.extraer();
+                int gActual = g[id];
+                int cod = codigo[id];
+                if (gActual + heuristica.estimar(cod) + heuristica.penalizacion(cod) >= incumbente.get()) {
+                    deuda++; // podado: no puede mejorar la solución
+                    continue;
+                }
+                if (EstadoCodificado.esObjetivo(cod)) {
+                    int mejor;
+                    while (gActual < (mejor = incumbente.get()) && !incumbente.compareAndSet(mejor, gActual)) {
+                        // reintentar
+                    }
+                    deuda++;
+                    continue;
+                }
+                if (expandidos >= limiteNodos) {
+                    limiteAlcanzado = true;
+                    detenerTodos();
+                    break;
+                }
+                expandir(id);
+                deuda++;
+                saldar();
+                if (++desdeEnvio == EXPANSIONES_POR_ENVIO) {
+                    enviarTodo();
+                    desdeEnvio = 0;
+                }
+            }
+        }
+
+        /** Resta de pendientes las bajas acumuladas. */
+        private void saldar() {
+            if (deuda != 0) {
+                pendientes.addAndGet(-deuda);
+                deuda = 0;
+            }
+        }
+
+        /** Genera los hijos que pueden mejorar la solución y los reparte a sus dueños. */
+        private void expandir(int id) {
+            expandidos++;
+            estadisticas.expandido(g[id]);
+            int gHijo = g[id] + 1;
+            if (g[id] >= profundidadMaxima)
+                return;
+            int cod = codigo[id];
+            int N = problema.getN();
+            int n = generador.expandir(cod, hijosCodigo, hijosMov, 0);
+            estadisticas.generados(n);
+            int mejor = incumbente.get();
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                int hijo = hijosCodigo[i];
+                if (!EstadoCodificado.esValido(hijo, N))
+                    continue;
+                estadisticas.valido();
+                if (gHijo + heuristica.estimar(hijo) + heuristica.penalizacion(hijo) >= mejor)
+                    continue;
+                hijosCodigo[k] = hijo;
+                hijosMov[k++] = hijosMov[i];
+            }
+            // Se cuentan antes de que ningún mensaje sea visible para otro hilo
+            pendientes.addAndGet(k);
+
+            for (int i = 0; i < k; i++) {
+                int hijo = hijosCodigo[i];
+                int destino = dueno(hijo);
+                if (destino == indice) {
+                    recibirUno(hijo, gHijo, cod, hijosMov[i]);
+                    continue;
+                }
+                int[] lote = lotes[destino];
+                int p = tamLote[destino];
+                lote[p] = hijo;
+                lote[p + 1] = gHijo;
+                lote[p + 2] = cod;
+                lote[p + 3] = hijosMov[i];
+                tamLote[destino] = p + CAMPOS;
+                if (tamLote[destino] == lote.length)
+                    enviar(destino);
+            }
+        }
+
+        private void enviarTodo() {
+            for (int d = 0; d < lotes.length; d++) {
+                if (tamLote[d] > 0)
+                    enviar(d);
+            }
+        }
+
+        private void enviar(int destino) {
+            Trabajador t = trabajadores[destino];
+            t.buzon.add(Arrays.copyOf(lotes[destino], tamLote[destino]));
+            tamLote[destino] = 0;
+            if (t.esperando)
+                t.despertar();
+        }
+
+        private void recibir(int[] lote, int longitud) {
+            for (int p = 0; p < longitud; p += CAMPOS)
+                recibirUno(lote[p], lote[p + 1], lote[p + 2], lote[p + 3]);
+            saldar();
+        }
+
+        /** Procesa un mensaje ya contado en pendientes. */
+        private void recibirUno(int hijo, int gHijo, int codPadre, int movHijo) {
+            int id = idDe.obtener(hijo);
+            if (id != MapaEstados.AUSENTE && gHijo >= g[id]) {
+                estadisticas.duplicado();
+                deuda++;
+                return;
+            }
+            int f = gHijo + heuristica.estimar(hijo) + heuristica.penalizacion(hijo);
+            if (id == MapaEstados.AUSENTE) {
+                id = nuevo(hijo);
+            } else if (abiertos.contiene(id)) {
+                // Mejora de g de una entrada de ABIERTOS: la entrada ya estaba contada
+                g[id] = gHijo;
+                padre[id] = codPadre;
+                mov[id] = movHijo;
+                abiertos.actualizar(id, f, gHijo);
+                deuda++;
+                return;
+            } else {
+                estadisticas.reapertura();
+            }
+            g[id] = gHijo;
+            padre[id] = codPadre;
+            mov[id] = movHijo;
+            abiertos.insertar(id, f, gHijo);
+            estadisticas.abiertos(abiertos.tamano());
+        }
+
+        private int nuevo(int cod) {
+            if (tamano == codigo.length) {
+                int c = tamano << 1;
+                codigo = Arrays.copyOf(codigo, c);
+                g = Arrays.copyOf(g, c);
+                padre = Arrays.copyOf(padre, c);
+                mov = Arrays.copyOf(mov, c);
+            }
+            int id = tamano++;
+            codigo[id] = cod;
+            idDe.poner(cod, id);
+            return id;
+        }
+    }
+}
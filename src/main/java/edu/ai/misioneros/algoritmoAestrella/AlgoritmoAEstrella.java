@@ -1,154 +1,297 @@
 package edu.ai.misioneros.algoritmoAestrella;
 
-import edu.ai.misioneros.modelo.Estado;
-import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.busqueda.GeneradorSucesores;
+import edu.ai.misioneros.busqueda.Heuristica;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.OyenteBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.estructuras.ArenaNodos;
+import edu.ai.misioneros.estructuras.ColaBuckets;
+import edu.ai.misioneros.estructuras.MapaEstados;
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
 import edu.ai.misioneros.modelo.ResultadoBusqueda;
 
-import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Implementación del algoritmo A* para Misioneros y Caníbales.
+ * Trabaja sobre estados codificados en un int (ver EstadoCodificado).
+ * La lista ABIERTOS es una cola por buckets de f; por defecto se extrae el
+ * nodo de mayor FH. Cada estado aparece como mucho una vez en ABIERTOS: si
+ * se llega a él por un camino más corto se reemplaza su entrada, y un estado
+ * cerrado solo se reabre cuando el nuevo g es menor que el que tenía.
+ * Los nodos viven en una ArenaNodos que, como los mapas de ABIERTOS y
+ * CERRADOS, se reutiliza entre llamadas, por lo que una instancia no debe
+ * resolver desde dos hilos a la vez.
+ * Respeta el límite de nodos y la profundidad máxima de OpcionesBusqueda, y
+ * usa la heurística de las opciones si se indica una.
+ * Si las opciones traen un OyenteBusqueda, le publica cada nodo generado,
+ * expandido o descartado con su índice en la arena.
  */
-public class AlgoritmoAEstrella {
+public class AlgoritmoAEstrella implements MotorBusqueda {
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda(); // usadas por resolver()
+    private Problema problema;
+    private GeneradorSucesores generador;
+    private Heuristica heuristicaPorDefecto;
+    private Heuristica heuristica; // la de la resolución en curso
+
+    // Reutilizados entre resoluciones
+    private final ArenaNodos arena = new ArenaNodos();
+    private MapaEstados enAbiertos; // estado -> índice en la arena
+    private MapaEstados cerrados;   // estado -> g
+    private int nMapas = -1;        // N para el que se crearon los mapas
+    private int[] hijosCodigo;
+    private int[] hijosMov;
+    private int[] hijosF;
+    private int[] orden;
+
+    public AlgoritmoAEstrella() {
+        this(Problema.clasico());
+    }
+
+    public AlgoritmoAEstrella(Problema problema) {
+        this(problema, true);
+    }
+
+    /**
+     * @param extraerMaximo true para extraer primero el mayor FH, false para el menor
+     */
+    public AlgoritmoAEstrella(Problema problema, boolean extraerMaximo) {
+        this.problema = problema;
+        opciones.setExtraerMaximo(extraerMaximo);
+    }
+
+    @Override
+    public String getNombre() {
+        return "A*";
+    }
+
+    /**
+     * Con ARBOL_COMPLETO (por defecto) se guardan todos los hijos, también los
+     * inválidos, para la vista; con los otros modos solo entran en la arena
+     * los nodos que pasan a ABIERTOS.
+     */
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        opciones.setModoRetencion(modoRetencion);
+    }
 
     public ResultadoBusqueda resolver() {
+        return resolver(problema, opciones);
+    }
+
+    @Override
+    public ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
         long inicio = System.nanoTime();
+        EstadisticasBusqueda estadisticas = new EstadisticasBusqueda(getNombre(), problema);
+        estadisticas.iniciarMedicion();
+        preparar(problema);
+        boolean arbolCompleto = opciones.getModoRetencion() == ModoRetencion.ARBOL_COMPLETO;
+        int N = problema.getN();
+        int profundidadMaxima = opciones.getProfundidadMaxima();
+        int limiteNodos = opciones.getLimiteNodos();
+        heuristica = opciones.getHeuristica() != null ? opciones.getHeuristica() : heuristicaPorDefecto;
+        TokenCancelacion token = opciones.getTokenCancelacion();
+        OyenteBusqueda oyente = opciones.getOyente();
 
-        Estado inicial = new Estado(3, 3, 0);
-        int h0 = heuristica(inicial);
+        arena.reiniciar();
+        int inicial = EstadoCodificado.codificar(problema.getInicial());
+        int h0 = heuristica.estimar(inicial);
         int f0 = h0; // g=0 y sin penalizaciones
-        Nodo raiz = new Nodo(inicial, null, 0, h0, f0, "Inicio");
+        int raiz = arena.agregar(inicial, ArenaNodos.SIN_PADRE, 0, h0, f0, -1);
+        if (oyente != null)
+            oyente.nodoGenerado(raiz, ArenaNodos.SIN_PADRE, inicial, 0, h0, f0, -1);
 
-        PriorityQueue<Nodo> abiertos = new PriorityQueue<>(Comparator.comparingInt(Nodo::getFh).reversed());
-        Set<Estado> cerrados = new HashSet<>();
-        List<Nodo> todos = new ArrayList<>();
+        // ABIERTOS guarda índices de la arena
+        ColaBuckets abiertos = new ColaBuckets(opciones.isExtraerMaximo());
 
-        abiertos.add(raiz);
-        todos.add(raiz);
+        abiertos.insertar(raiz, f0, 0);
+        enAbiertos.poner(inicial, raiz);
+        estadisticas.abiertos(1);
 
-        Nodo objetivo = null;
+        int objetivo = -1;
 
-        while (!abiertos.isEmpty()) {
-            Nodo actual = abiertos.poll();
-            cerrados.add(actual.getEstado());
+        while (!abiertos.estaVacia()) {
+            if (token != null)
+                token.verificar();
+            int actual = abiertos.extraer();
+            int codigoActual = arena.codigo(actual);
+            int g = arena.g(actual) + 1;
+            enAbiertos.eliminar(codigoActual);
+            cerrados.poner(codigoActual, arena.g(actual));
 
-            if (actual.getEstado().esObjetivo()) {
+            if (EstadoCodificado.esObjetivo(codigoActual)) {
                 objetivo = actual;
+                if (oyente != null)
+                    oyente.objetivoEncontrado(actual);
                 break;
             }
+            if (cerrados.tamano() > limiteNodos)
+                break;
+            if (g > profundidadMaxima)
+                continue;
+            if (oyente != null)
+                oyente.nodoExpandido(actual);
+            estadisticas.expandido(g - 1);
 
-            // Generar todos los hijos posibles
-            List<Nodo> hijos = expandir(actual);
+            // Generar todos los hijos posibles, ordenados por FH descendente (mayor FH primero)
+            int n = expandir(codigoActual, g);
+            ordenarPorFDescendente(n);
+            estadisticas.generados(n);
 
-            // Ordenar hijos por FH descendente (mayor FH primero)
-            hijos.sort(Comparator.comparingInt(Nodo::getFh).reversed());
+            for (int k = 0; k < n; k++) {
+                int i = orden[k];
+                int codigo = hijosCodigo[i];
+                int f = hijosF[i];
+                int h = heuristica.estimar(codigo);
 
-            for (Nodo hijo : hijos) {
-                // Siempre agregar el hijo al nodo padre para visualización
-                actual.agregarHijo(hijo);
-                todos.add(hijo);
+                // En modo árbol completo se guarda todo hijo para visualización
+                int id = arbolCompleto ? arena.agregar(codigo, actual, g, h, f, hijosMov[i]) : -1;
+                if (id >= 0 && oyente != null)
+                    oyente.nodoGenerado(id, actual, codigo, g, h, f, hijosMov[i]);
 
-                // Solo agregar a abiertos si es válido y no está en cerrados
-                if (hijo.getEstado().esValido() && !cerrados.contains(hijo.getEstado())) {
-                    abiertos.add(hijo);
+                if (!EstadoCodificado.esValido(codigo, N)) {
+                    if (id >= 0 && oyente != null)
+                        oyente.nodoPodado(id);
+                    continue;
                 }
+                estadisticas.valido();
+
+                int previo = enAbiertos.obtener(codigo);
+                if (previo != MapaEstados.AUSENTE) {
+                    // Ya está en abiertos: reemplazar la entrada solo si mejora g
+                    if (g < arena.g(previo)) {
+                        if (arbolCompleto) {
+                            // La entrada vieja sigue en el árbol; la cola pasa a apuntar a la nueva
+                            abiertos.eliminar(previo);
+                            abiertos.insertar(id, f, g);
+                            enAbiertos.poner(codigo, id);
+                        } else {
+                            arena.actualizar(previo, actual, g, h, f, hijosMov[i]);
+                            abiertos.actualizar(previo, f, g);
+                        }
+                    } else {
+                        estadisticas.duplicado();
+                        if (id >= 0 && oyente != null)
+                            oyente.nodoPodado(id);
+                    }
+                    continue;
+                }
+
+                int gCerrado = cerrados.obtener(codigo);
+                if (gCerrado != MapaEstados.AUSENTE) {
+                    // Ya cerrado: reabrir solo si el nuevo camino es más corto
+                    if (g >= gCerrado) {
+                        estadisticas.duplicado();
+                        if (id >= 0 && oyente != null)
+                            oyente.nodoPodado(id);
+                        continue;
+                    }
+                    cerrados.eliminar(codigo);
+                    estadisticas.reapertura();
+                }
+                if (id < 0) {
+                    id = arena.agregar(codigo, actual, g, h, f, hijosMov[i]);
+                    if (oyente != null)
+                        oyente.nodoGenerado(id, actual, codigo, g, h, f, hijosMov[i]);
+                }
+                abiertos.insertar(id, f, g);
+                enAbiertos.poner(codigo, id);
             }
+            estadisticas.abiertos(abiertos.tamano());
         }
 
-        List<Nodo> camino = reconstruirCamino(objetivo);
+        int longitud = objetivo >= 0 ? arena.g(objetivo) + 1 : 0;
+        Supplier<ArbolBusqueda> arbol = arena.vista(objetivo, problema, opciones.getModoRetencion());
+        estadisticas.abiertos(abiertos.tamano());
+        estadisticas.setCerrados(cerrados.tamano());
+        estadisticas.setProfundidadSolucion(longitud - 1);
+        estadisticas.terminarMedicion();
         long fin = System.nanoTime();
 
-        return new ResultadoBusqueda(
-                raiz,
-                camino,
-                todos,
-                cerrados.size(),
-                abiertos.size(),
-                cerrados.size(),
-                fin - inicio);
+        return new ResultadoBusqueda(arbol, estadisticas, fin - inicio, longitud);
     }
 
-    private int heuristica(Estado e) {
-        // h(estado) = 6 - 2*M - 2*C
-        int h = 6 - 2 * e.getMisionerosIzquierda() - 2 * e.getCanibalesIzquierda();
-        return h;
+    /**
+     * Vacía los mapas de ABIERTOS y CERRADOS (se crean de nuevo solo si
+     * cambió N) y ajusta el generador y los buffers si cambió el problema.
+     */
+    private void preparar(Problema p) {
+        if (nMapas != p.getN()) {
+            enAbiertos = MapaEstados.para(p);
+            cerrados = MapaEstados.para(p);
+            nMapas = p.getN();
+        } else {
+            enAbiertos.limpiar();
+            cerrados.limpiar();
+        }
+        if (generador != null && generador.getProblema() == p)
+            return;
+        problema = p;
+        generador = GeneradorSucesores.para(p);
+        heuristicaPorDefecto = new HeuristicaProgreso(p.getN());
+        int maxHijos = generador.getMaxSucesores();
+        hijosCodigo = new int[maxHijos];
+        hijosMov = new int[maxHijos];
+        hijosF = new int[maxHijos];
+        orden = new int[maxHijos];
     }
 
-    private int penalizaciones(Estado e) {
-        int mL = e.getMisionerosIzquierda();
-        int cL = e.getCanibalesIzquierda();
-        int mR = 3 - mL;
-        int cR = 3 - cL;
-        int pen = 0;
-        if (cL > mL && mL > 0)
-            pen -= 1000; // izquierda inválida
-        if (mR > cR && mR > 0)
-            pen -= 1000; // derecha inválida
-        return pen;
+    /**
+     * Escribe en hijosCodigo/hijosMov/hijosF los sucesores del estado y
+     * devuelve cuántos hay.
+     */
+    private int expandir(int e, int g) {
+        int n = generador.expandir(e, hijosCodigo, hijosMov, 0);
+        for (int i = 0; i < n; i++)
+            hijosF[i] = g + heuristica.estimar(hijosCodigo[i]) + heuristica.penalizacion(hijosCodigo[i]);
+        return n;
     }
 
-    private List<Nodo> expandir(Nodo nodo) {
-        Estado e = nodo.getEstado();
-        List<Nodo> hijos = new ArrayList<>();
-        int M = e.getMisionerosIzquierda();
-        int C = e.getCanibalesIzquierda();
-        int L = e.getLanchaLado();
-
-        // Generar operadores según lado de la lancha
-        if (L == 0) {
-            // 1. (M-1, C, 1)
-            if (M > 0)
-                hijos.add(crearNodo(nodo, new Estado(M - 1, C, 1), "Mover 1 misionero a la derecha"));
-            // 2. (M-2, C, 1)
-            if (M > 1)
-                hijos.add(crearNodo(nodo, new Estado(M - 2, C, 1), "Mover 2 misioneros a la derecha"));
-            // 3. (M, C-1, 1)
-            if (C > 0)
-                hijos.add(crearNodo(nodo, new Estado(M, C - 1, 1), "Mover 1 caníbal a la derecha"));
-            // 4. (M, C-2, 1)
-            if (C > 1)
-                hijos.add(crearNodo(nodo, new Estado(M, C - 2, 1), "Mover 2 caníbales a la derecha"));
-            // 5. (M-1, C-1, 1)
-            if (M > 0 && C > 0)
-                hijos.add(crearNodo(nodo, new Estado(M - 1, C - 1, 1), "Mover 1 misionero y 1 caníbal a la derecha"));
-        } else {
-            // 6. (M+1, C, 0)
-            if (M < 3)
-                hijos.add(crearNodo(nodo, new Estado(M + 1, C, 0), "Mover 1 misionero a la izquierda"));
-            // 7. (M+2, C, 0)
-            if (M < 2)
-                hijos.add(crearNodo(nodo, new Estado(M + 2, C, 0), "Mover 2 misioneros a la izquierda"));
-            // 8. (M, C+1, 0)
-            if (C < 3)
-                hijos.add(crearNodo(nodo, new Estado(M, C + 1, 0), "Mover 1 caníbal a la izquierda"));
-            // 9. (M, C+2, 0)
-            if (C < 2)
-                hijos.add(crearNodo(nodo, new Estado(M, C + 2, 0), "Mover 2 caníbales a la izquierda"));
-            // 10. (M+1, C+1, 0)
-            if (M < 3 && C < 3)
-                hijos.add(crearNodo(nodo, new Estado(M + 1, C + 1, 0), "Mover 1 misionero y 1 caníbal a la izquierda"));
+    /** Inserción estable sobre índices: a igual FH se respeta el orden de generación. */
+    private void ordenarPorFDescendente(int n) {
+        for (int k = 0; k < n; k++) {
+            int i = k;
+            int f = hijosF[k];
+            while (i > 0 && hijosF[orden[i - 1]] < f) {
+                orden[i] = orden[i - 1];
+                i--;
+            }
+            orden[i] = k;
         }
-
-        return hijos;
     }
 
-    private Nodo crearNodo(Nodo padre, Estado hijoEstado, String operador) {
-        int g = padre.getNivel() + 1;
-        int h = heuristica(hijoEstado);
-        int f = g + h + penalizaciones(hijoEstado);
-        return new Nodo(hijoEstado, padre, g, h, f, operador);
-    }
+    /** Heurística propia: progreso hacia la derecha más las penalizaciones de -1000. */
+    private static final class HeuristicaProgreso implements Heuristica {
+        private final int n;
+
+        HeuristicaProgreso(int n) {
+            this.n = n;
+        }
+
+        @Override
+        public int estimar(int codigo) {
+            // h(estado) = 2N - 2*M - 2*C
+            int h = 2 * n - 2 * EstadoCodificado.misioneros(codigo) - 2 * EstadoCodificado.canibales(codigo);
+            return h;
+        }
 
-    private List<Nodo> reconstruirCamino(Nodo objetivo) {
-        List<Nodo> camino = new ArrayList<>();
-        if (objetivo == null)
-            return camino;
-        Nodo cur = objetivo;
-        while (cur != null) {
-            camino.add(cur);
-            cur = cur.getPadre();
+        @Override
+        public int penalizacion(int codigo) {
+            int mL = EstadoCodificado.misioneros(codigo);
+            int cL = EstadoCodificado.canibales(codigo);
+            int mR = n - mL;
+            int cR = n - cL;
+            int pen = 0;
+            if (cL > mL && mL > 0)
+                pen -= 1000; // izquierda inválida
+            if (mR > cR && mR > 0)
+                pen -= 1000; // derecha inválida
+            return pen;
         }
-        Collections.reverse(camino);
-        return camino;
     }
 }
@@ -0,0 +1,240 @@
+package edu.ai.misioneros.algoritmoBidireccional;
+
+import edu.ai.misioneros.busqueda.GeneradorSucesores;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.estructuras.ArenaNodos;
+import edu.ai.misioneros.estructuras.MapaEstados;
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Búsqueda en anchura bidireccional: una frontera avanza desde el estado
+ * inicial y otra desde el objetivo (0, 0, 1). Los movimientos de la lancha
+ * son reversibles, así que hacia atrás se usan los mismos sucesores.
+ * En cada paso se expande una capa completa de la frontera más pequeña;
+ * cuando una capa toca los estados de la otra dirección se termina la capa,
+ * se queda el encuentro de menor longitud (que es óptimo) y se cose el
+ * camino: el tramo hacia atrás se agrega a la arena de la dirección hacia
+ * adelante, de modo que el camino y el árbol se ven como en los otros motores.
+ * El árbol conservado con ARBOL_COMPLETO es el de la dirección hacia adelante
+ * (con todos sus hijos, también los inválidos) más el tramo cosido.
+ */
+public class AlgoritmoBidireccional implements MotorBusqueda {
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda(); // usadas por resolver()
+    private Problema problema;
+    private GeneradorSucesores generador;
+
+    // Reutilizados entre resoluciones
+    private final Lado adelante = new Lado();
+    private final Lado atras = new Lado();
+    private int[] hijosCodigo;
+    private int[] hijosMov;
+
+    // Mejor encuentro de la capa en curso
+    private int mejorLongitud;
+    private int encuentroAdelante;
+    private int encuentroAtras;
+    private int encuentroMov;
+    private EstadisticasBusqueda estadisticas;
+    private TokenCancelacion token;
+
+    /** Estado de una dirección: su árbol, sus visitados y la capa actual. */
+    private static final class Lado {
+        final ArenaNodos arena = new ArenaNodos();
+        MapaEstados visitados; // estado -> índice en la arena
+        int[] capa = new int[64];
+        int[] siguiente = new int[64];
+        int tamCapa;
+        int profundidad;
+        int expandidos;
+
+        void reiniciar(Problema problema, int codigo) {
+            arena.reiniciar();
+            visitados = MapaEstados.para(problema);
+            int raiz = arena.agregar(codigo, ArenaNodos.SIN_PADRE, 0, 0, 0, -1);
+            visitados.poner(codigo, raiz);
+            capa[0] = raiz;
+            tamCapa = 1;
+            profundidad = 0;
+            expandidos = 0;
+        }
+    }
+
+    public AlgoritmoBidireccional() {
+        this(Problema.clasico());
+    }
+
+    public AlgoritmoBidireccional(Problema problema) {
+        this.problema = problema;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Bidireccional";
+    }
+
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        opciones.setModoRetencion(modoRetencion);
+    }
+
+    public ResultadoBusqueda resolver() {
+        return resolver(problema, opciones);
+    }
+
+    @Override
+    public ResultadoBidireccional resolver(Problema problema, OpcionesBusqueda opciones) {
+        long inicio = System.nanoTime();
+        estadisticas = new EstadisticasBusqueda(getNombre(), problema);
+        estadisticas.iniciarMedicion();
+        preparar(problema);
+        boolean arbolCompleto = opciones.getModoRetencion() == ModoRetencion.ARBOL_COMPLETO;
+        int inicial = EstadoCodificado.codificar(problema.getInicial());
+
+        adelante.reiniciar(problema, inicial);
+        atras.reiniciar(problema, EstadoCodificado.OBJETIVO);
+        mejorLongitud = Integer.MAX_VALUE;
+        estadisticas.abiertos(2);
+        token = opciones.getTokenCancelacion();
+
+        int objetivo = -1;
+        if (EstadoCodificado.esObjetivo(inicial)) {
+            objetivo = 0;
+        } else {
+            while (adelante.tamCapa > 0 && atras.tamCapa > 0) {
+                // Ningún camino encontrado desde aquí tendría menos de profundidad + 1 movimientos
+                if (adelante.profundidad + atras.profundidad + 1 > opciones.getProfundidadMaxima())
+                    break;
+                boolean haciaAdelante = adelante.tamCapa <= atras.tamCapa;
+                if (!expandirCapa(haciaAdelante ? adelante : atras, haciaAdelante ? atras : adelante,
+                        haciaAdelante && arbolCompleto, opciones.getLimiteNodos()))
+                    break;
+                if (mejorLongitud != Integer.MAX_VALUE) {
+                    objetivo = coser();
+                    break;
+                }
+            }
+        }
+
+        int longitud = objetivo >= 0 ? adelante.arena.g(objetivo) + 1 : 0;
+        Supplier<ArbolBusqueda> arbol = adelante.arena.vista(objetivo, problema, opciones.getModoRetencion());
+        // ABIERTOS: las dos capas por expandir
+        estadisticas.abiertos(adelante.tamCapa + atras.tamCapa);
+        estadisticas.setCerrados(adelante.visitados.tamano() + atras.visitados.tamano());
+        estadisticas.setProfundidadSolucion(longitud - 1);
+        estadisticas.terminarMedicion();
+        long fin = System.nanoTime();
+
+        return new ResultadoBidireccional(
+                arbol,
+                estadisticas,
+                fin - inicio,
+                longitud,
+                adelante.expandidos,
+                atras.expandidos);
+    }
+
+    /**
+     * Expande todos los nodos de la capa actual del lado. Registra en
+     * mejorLongitud el encuentro más corto con el otro lado.
+     *
+     * @return false si se agotó el límite de nodos
+     */
+    private boolean expandirCapa(Lado lado, Lado otro, boolean guardarTodos, int limiteNodos) {
+        int N = problema.getN();
+        int g = lado.profundidad + 1;
+        int tamSiguiente = 0;
+
+        for (int j = 0; j < lado.tamCapa; j++) {
+            if (adelante.expandidos + atras.expandidos >= limiteNodos)
+                return false;
+            if (token != null)
+                token.verificar();
+            int actual = lado.capa[j];
+            lado.expandidos++;
+            estadisticas.expandido(lado.profundidad); // contada desde el extremo de su lado
+
+            int n = generador.expandir(lado.arena.codigo(actual), hijosCodigo, hijosMov, 0);
+            estadisticas.generados(n);
+            for (int i = 0; i < n; i++) {
+                int codigo = hijosCodigo[i];
+                int id = guardarTodos ? lado.arena.agregar(codigo, actual, g, 0, g, hijosMov[i]) : -1;
+                if (!EstadoCodificado.esValido(codigo, N))
+                    continue;
+                estadisticas.valido();
+
+                int delOtro = otro.visitados.obtener(codigo);
+                if (delOtro != MapaEstados.AUSENTE) {
+                    int longitud = g + otro.arena.g(delOtro);
+                    if (longitud < mejorLongitud) {
+                        mejorLongitud = longitud;
+                        // Tramo hacia adelante hasta un nodo, un movimiento y tramo hacia atrás
+                        if (lado == adelante) {
+                            encuentroAdelante = actual;
+                            encuentroAtras = delOtro;
+                        } else {
+                            encuentroAdelante = delOtro;
+                            encuentroAtras = actual;
+                        }
+                        encuentroMov = hijosMov[i];
+                    }
+                }
+
+                if (lado.visitados.contiene(codigo)) {
+                    estadisticas.duplicado();
+                    continue;
+                }
+                if (id < 0)
+                    id = lado.arena.agregar(codigo, actual, g, 0, g, hijosMov[i]);
+                lado.visitados.poner(codigo, id);
+                if (tamSiguiente == lado.siguiente.length)
+                    lado.siguiente = Arrays.copyOf(lado.siguiente, tamSiguiente << 1);
+                lado.siguiente[tamSiguiente++] = id;
+            }
+        }
+
+        int[] t = lado.capa;
+        lado.capa = lado.siguiente;
+        lado.siguiente = t;
+        lado.tamCapa = tamSiguiente;
+        lado.profundidad = g;
+        estadisticas.abiertos(adelante.tamCapa + atras.tamCapa);
+        return true;
+    }
+
+    /**
+     * Agrega a la arena hacia adelante el tramo del encuentro hasta el
+     * objetivo y devuelve el índice del nodo objetivo.
+     */
+    private int coser() {
+        ArenaNodos arena = adelante.arena;
+        ArenaNodos arenaAtras = atras.arena;
+        int padre = encuentroAdelante;
+        int mov = encuentroMov;
+        for (int b = encuentroAtras; b != ArenaNodos.SIN_PADRE; b = arenaAtras.padre(b)) {
+            int g = arena.g(padre) + 1;
+            padre = arena.agregar(arenaAtras.codigo(b), padre, g, 0, g, mov);
+            // Hacia atrás b se generó desde su padre con esta carga; hacia adelante es la misma
+            mov = arenaAtras.movimiento(b);
+        }
+        return padre;
+    }
+
+    /** Ajusta el generador y los buffers si cambió el problema. */
+    private void preparar(Problema p) {
+        if (generador != null && generador.getProblema() == p)
+            return;
+        problema = p;
+        generador = GeneradorSucesores.para(p);
+        hijosCodigo = new int[generador.getMaxSucesores()];
+        hijosMov = new int[generador.getMaxSucesores()];
+    }
+}
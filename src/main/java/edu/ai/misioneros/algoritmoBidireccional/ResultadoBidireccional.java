@@ -0,0 +1,32 @@
+package edu.ai.misioneros.algoritmoBidireccional;
+
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.function.Supplier;
+
+/**
+ * ResultadoBusqueda con los nodos expandidos en cada dirección.
+ */
+public class ResultadoBidireccional extends ResultadoBusqueda {
+    private final int expandidosAdelante;
+    private final int expandidosAtras;
+
+    public ResultadoBidireccional(Supplier<ArbolBusqueda> fuenteArbol,
+                                  EstadisticasBusqueda estadisticas,
+                                  long tiempoNs,
+                                  int longitudSolucion,
+                                  int expandidosAdelante,
+                                  int expandidosAtras) {
+        super(fuenteArbol, estadisticas, tiempoNs, longitudSolucion);
+        this.expandidosAdelante = expandidosAdelante;
+        this.expandidosAtras = expandidosAtras;
+    }
+
+    /** Nodos expandidos desde el estado inicial. */
+    public int getExpandidosAdelante() { return expandidosAdelante; }
+
+    /** Nodos expandidos desde el objetivo (0, 0, 1). */
+    public int getExpandidosAtras() { return expandidosAtras; }
+}
@@ -0,0 +1,295 @@
+package edu.ai.misioneros.algoritmoIDAEstrella;
+
+import edu.ai.misioneros.busqueda.CotaViajes;
+import edu.ai.misioneros.busqueda.GeneradorSucesores;
+import edu.ai.misioneros.busqueda.Heuristica;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.estructuras.ArenaNodos;
+import edu.ai.misioneros.estructuras.MapaEstados;
+import edu.ai.misioneros.estructuras.MapaEstadosHash;
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * IDA*: búsqueda en profundidad acotada por f = g + h, repetida con el menor
+ * f que superó el umbral anterior. Guarda el camino actual (una pila de
+ * marcos en arreglos int reutilizados y el conjunto de estados del camino,
+ * para no entrar en ciclos) y una tabla de transposición acotada a
+ * MAX_TRANSPOSICIONES estados con el menor g con que se expandió cada uno
+ * en la iteración: un estado al que se vuelve a llegar con un g igual o
+ * mayor ya se exploró (o se está explorando) con al menos ese margen y se
+ * poda. Sin ella, las transposiciones hacen crecer cada iteración de forma
+ * exponencial con la profundidad. Llena la tabla, los estados nuevos ya no
+ * se anotan, así que la memoria sigue acotada.
+ * La heurística propia de A* (2N - 2M - 2C con penalizaciones de -1000) no
+ * es una cota inferior, y con ella IDA* no garantiza nada. Por defecto se usa
+ * CotaViajes, que sí lo es; OpcionesBusqueda.setHeuristica() permite usar
+ * otra (por ejemplo la del OraculoDistancias, con la que la última iteración
+ * va directa al objetivo).
+ * Con cualquier modo de retención distinto de SOLO_ESTADISTICAS se conserva
+ * solo el camino solución: IDA* no guarda el árbol.
+ * En las estadísticas se suman todas las iteraciones; el pico de ABIERTOS
+ * es la mayor profundidad de la pila de marcos.
+ */
+public class AlgoritmoIDAEstrella implements MotorBusqueda {
+    private static final int INFINITO = Integer.MAX_VALUE;
+    private static final int MAX_TRANSPOSICIONES = 1 << 20;
+
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda(); // usadas por resolver()
+    private Problema problema;
+    private GeneradorSucesores generador;
+    private Heuristica heuristicaPorDefecto;
+    private Heuristica heuristica; // la de la resolución en curso
+    private TokenCancelacion token;
+
+    // Pila de marcos, reutilizada entre resoluciones. Los hijos del marco d
+    // ocupan [d * maxHijos, d * maxHijos + marcoNumHijos[d]).
+    private int maxHijos;
+    private int[] camino = new int[64];        // código del estado en cada profundidad
+    private int[] caminoMov = new int[64];     // movimiento que llevó a él
+    private int[] marcoNumHijos = new int[64];
+    private int[] marcoSiguiente = new int[64];
+    private int[] hijosCodigo;
+    private int[] hijosMov;
+    private int[] hijosF;
+    private int[] orden;
+    private final MapaEstados enCamino = new MapaEstadosHash(); // estado -> profundidad
+    private final MapaEstados transposiciones = new MapaEstadosHash(); // estado -> menor g expandido
+
+    // Estado de la iteración en curso
+    private int siguienteUmbral;
+    private long expandidos;
+    private long expandidosTotal;
+    private EstadisticasBusqueda estadisticas;
+
+    public AlgoritmoIDAEstrella() {
+        this(Problema.clasico());
+    }
+
+    public AlgoritmoIDAEstrella(Problema problema) {
+        this.problema = problema;
+    }
+
+    @Override
+    public String getNombre() {
+        return "IDA*";
+    }
+
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        opciones.setModoRetencion(modoRetencion);
+    }
+
+    public ResultadoBusqueda resolver() {
+        return resolver(problema, opciones);
+    }
+
+    @Override
+    public ResultadoIDAEstrella resolver(Problema problema, OpcionesBusqueda opciones) {
+        long inicio = System.nanoTime();
+        estadisticas = new EstadisticasBusqueda(getNombre(), problema);
+        estadisticas.iniciarMedicion();
+        preparar(problema);
+        heuristica = opciones.getHeuristica() != null ? opciones.getHeuristica() : heuristicaPorDefecto;
+        token = opciones.getTokenCancelacion();
+        int inicial = EstadoCodificado.codificar(problema.getInicial());
+        expandidosTotal = 0;
+
+        int[] umbrales = new int[8];
+        long[] porIteracion = new long[8];
+        int iteraciones = 0;
+
+        int profundidadObjetivo = -1;
+        int umbral = f(0, inicial);
+        while (true) {
+            siguienteUmbral = INFINITO;
+            expandidos = 0;
+            int r = buscar(inicial, umbral, opciones);
+            if (iteraciones == umbrales.length) {
+                umbrales = Arrays.copyOf(umbrales, iteraciones << 1);
+                porIteracion = Arrays.copyOf(porIteracion, iteraciones << 1);
+            }
+            umbrales[iteraciones] = umbral;
+            porIteracion[iteraciones++] = expandidos;
+            expandidosTotal += expandidos;
+            if (r >= 0) {
+                profundidadObjetivo = r;
+                break;
+            }
+            // Sin nodos por encima del umbral (espacio agotado) o límite de nodos alcanzado
+            if (r == -2 || siguienteUmbral == INFINITO)
+                break;
+            umbral = siguienteUmbral;
+        }
+
+        int longitud = profundidadObjetivo >= 0 ? profundidadObjetivo + 1 : 0;
+        Supplier<ArbolBusqueda> arbol = vista(profundidadObjetivo, opciones.getModoRetencion());
+        estadisticas.abiertos(0);
+        estadisticas.setProfundidadSolucion(profundidadObjetivo);
+        estadisticas.terminarMedicion();
+        long fin = System.nanoTime();
+
+        return new ResultadoIDAEstrella(
+                arbol,
+                estadisticas,
+                fin - inicio,
+                longitud,
+                Arrays.copyOf(umbrales, iteraciones),
+                Arrays.copyOf(porIteracion, iteraciones));
+    }
+
+    /**
+     * Una iteración en profundidad con el umbral dado. Devuelve la
+     * profundidad del objetivo (que queda en camino[0..p]), -1 si no lo
+     * encontró o -2 si se agotó el límite de nodos.
+     */
+    private int buscar(int inicial, int umbral, OpcionesBusqueda opciones) {
+        int N = problema.getN();
+        enCamino.limpiar();
+        transposiciones.limpiar();
+        camino[0] = inicial;
+        caminoMov[0] = -1;
+        if (EstadoCodificado.esObjetivo(inicial))
+            return 0;
+        if (!EstadoCodificado.esValido(inicial, N))
+            return -1;
+        enCamino.poner(inicial, 0);
+        anotarExpandido(inicial, 0);
+        abrirMarco(0);
+
+        int d = 0;
+        while (d >= 0) {
+            int base = d * maxHijos;
+            if (marcoSiguiente[d] == marcoNumHijos[d]) {
+                // Marco agotado: volver al padre
+                enCamino.eliminar(camino[d]);
+                d--;
+                continue;
+            }
+            int k = base + orden[base + marcoSiguiente[d]++];
+            int codigo = hijosCodigo[k];
+            if (!EstadoCodificado.esValido(codigo, N))
+                continue;
+            estadisticas.valido();
+            int g = d + 1;
+            if (enCamino.contiene(codigo) || yaExpandido(codigo, g)) {
+                estadisticas.duplicado();
+                continue;
+            }
+            int f = hijosF[k];
+            if (f > umbral) {
+                if (f < siguienteUmbral)
+                    siguienteUmbral = f;
+                continue;
+            }
+
+            if (g == camino.length)
+                crecerPila();
+            camino[g] = codigo;
+            caminoMov[g] = hijosMov[k];
+            if (EstadoCodificado.esObjetivo(codigo))
+                return g;
+            if (g >= opciones.getProfundidadMaxima())
+                continue;
+            if (expandidosTotal + expandidos >= opciones.getLimiteNodos())
+                return -2;
+            d = g;
+            enCamino.poner(codigo, d);
+            anotarExpandido(codigo, d);
+            abrirMarco(d);
+        }
+        return -1;
+    }
+
+    /** Si el estado ya se expandió en esta iteración con un g que no es mayor. */
+    private boolean yaExpandido(int codigo, int g) {
+        int anterior = transposiciones.obtener(codigo);
+        return anterior != MapaEstados.AUSENTE && anterior <= g;
+    }
+
+    private void anotarExpandido(int codigo, int g) {
+        if (transposiciones.tamano() < MAX_TRANSPOSICIONES || transposiciones.contiene(codigo))
+            transposiciones.poner(codigo, g);
+    }
+
+    /** Genera los hijos del estado en camino[d], con su f, ordenados por f ascendente. */
+    private void abrirMarco(int d) {
+        if (token != null)
+            token.verificar();
+        expandidos++;
+        estadisticas.expandido(d);
+        estadisticas.abiertos(d + 1);
+        int base = d * maxHijos;
+        int n = generador.expandir(camino[d], hijosCodigo, hijosMov, base);
+        estadisticas.generados(n);
+        for (int i = base; i < base + n; i++)
+            hijosF[i] = f(d + 1, hijosCodigo[i]);
+        ordenarPorF(base, n);
+        marcoNumHijos[d] = n;
+        marcoSiguiente[d] = 0;
+    }
+
+    private int f(int g, int codigo) {
+        return g + heuristica.estimar(codigo) + heuristica.penalizacion(codigo);
+    }
+
+    /** Inserción estable sobre índices relativos: a igual f se respeta el orden de generación. */
+    private void ordenarPorF(int base, int n) {
+        for (int k = 0; k < n; k++) {
+            int i = k;
+            int f = hijosF[base + k];
+            while (i > 0 && hijosF[base + orden[base + i - 1]] > f) {
+                orden[base + i] = orden[base + i - 1];
+                i--;
+            }
+            orden[base + i] = k;
+        }
+    }
+
+    /** El camino camino[0..profundidad] como vista; IDA* no tiene más árbol que ese. */
+    private Supplier<ArbolBusqueda> vista(int profundidad, ModoRetencion modo) {
+        if (modo == ModoRetencion.SOLO_ESTADISTICAS)
+            return null;
+        ArenaNodos arena = new ArenaNodos(profundidad + 1);
+        int id = ArenaNodos.SIN_PADRE;
+        for (int g = 0; g <= profundidad; g++) {
+            int h = heuristica.estimar(camino[g]);
+            id = arena.agregar(camino[g], id, g, h, f(g, camino[g]), caminoMov[g]);
+        }
+        return arena.vista(id, problema, ModoRetencion.SOLO_CAMINO);
+    }
+
+    /** Ajusta el generador, la heurística por defecto y los buffers si cambió el problema. */
+    private void preparar(Problema p) {
+        if (generador != null && generador.getProblema() == p)
+            return;
+        problema = p;
+        generador = GeneradorSucesores.para(p);
+        heuristicaPorDefecto = new CotaViajes(p.getCapacidad());
+        maxHijos = generador.getMaxSucesores();
+        hijosCodigo = new int[camino.length * maxHijos];
+        hijosMov = new int[camino.length * maxHijos];
+        hijosF = new int[camino.length * maxHijos];
+        orden = new int[camino.length * maxHijos];
+    }
+
+    private void crecerPila() {
+        int c = camino.length << 1;
+        camino = Arrays.copyOf(camino, c);
+        caminoMov = Arrays.copyOf(caminoMov, c);
+        marcoNumHijos = Arrays.copyOf(marcoNumHijos, c);
+        marcoSiguiente = Arrays.copyOf(marcoSiguiente, c);
+        hijosCodigo = Arrays.copyOf(hijosCodigo, c * maxHijos);
+        hijosMov = Arrays.copyOf(hijosMov, c * maxHijos);
+        hijosF = Arrays.copyOf(hijosF, c * maxHijos);
+        orden = Arrays.copyOf(orden, c * maxHijos);
+    }
+}
@@ -0,0 +1,35 @@
+package edu.ai.misioneros.algoritmoIDAEstrella;
+
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.function.Supplier;
+
+/**
+ * ResultadoBusqueda con el umbral de f y los nodos expandidos en cada
+ * iteración de IDA*.
+ */
+public class ResultadoIDAEstrella extends ResultadoBusqueda {
+    private final int[] umbrales;
+    private final long[] expandidosPorIteracion;
+
+    public ResultadoIDAEstrella(Supplier<ArbolBusqueda> fuenteArbol,
+                                EstadisticasBusqueda estadisticas,
+                                long tiempoNs,
+                                int longitudSolucion,
+                                int[] umbrales,
+                                long[] expandidosPorIteracion) {
+        super(fuenteArbol, estadisticas, tiempoNs, longitudSolucion);
+        this.umbrales = umbrales;
+        this.expandidosPorIteracion = expandidosPorIteracion;
+    }
+
+    public int getIteraciones() { return umbrales.length; }
+
+    /** Umbral de f de cada iteración, en orden. */
+    public int[] getUmbrales() { return umbrales.clone(); }
+
+    /** Nodos expandidos en cada iteración, en orden. */
+    public long[] getExpandidosPorIteracion() { return expandidosPorIteracion.clone(); }
+}
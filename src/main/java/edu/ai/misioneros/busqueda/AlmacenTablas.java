@@ -0,0 +1,304 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.Problema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Guarda en disco las tablas de GrafoEstados y OraculoDistancias y las
+ * vuelve a abrir mapeadas en memoria (FileChannel.map, solo lectura): los
+ * buffers de la tabla son vistas del archivo, sin copiarlo al heap, así que
+ * un reinicio no reconstruye nada y varios procesos comparten las mismas
+ * páginas.
+ * Formato (little-endian): un encabezado de TAMANO_ENCABEZADO bytes con
+ * MAGIA, VERSION, el tipo de tabla, N, K, filas, aristas y el CRC32 de los
+ * datos; después las tablas int una tras otra y, al final, las de bytes.
+ * Al abrir se comprueban la magia, la versión, el tipo, N y K, los tamaños
+ * y el CRC32; un archivo que no pasa se ignora y se vuelve a escribir.
+ * Cada tabla se escribe en un temporal que luego se renombra, de modo que
+ * nadie abre un archivo a medio escribir.
+ * GrafoEstados.para() y OraculoDistancias.para() lo usan si hay un
+ * directorio configurado, con setDirectorio() o con la propiedad del
+ * sistema misioneros.tablas; si no, todo queda en memoria como antes.
+ */
+public final class AlmacenTablas {
+    /** "MCTB" */
+    public static final int MAGIA = 0x4D435442;
+    public static final int VERSION = 1;
+    public static final int TAMANO_ENCABEZADO = 64;
+    public static final String PROPIEDAD_DIRECTORIO = "misioneros.tablas";
+
+    private static final int TIPO_GRAFO = 1;
+    private static final int TIPO_ORACULO = 2;
+    // Posiciones en el encabezado
+    private static final int POS_MAGIA = 0;
+    private static final int POS_VERSION = 4;
+    private static final int POS_TIPO = 8;
+    private static final int POS_N = 12;
+    private static final int POS_K = 16;
+    private static final int POS_FILAS = 20;
+    private static final int POS_ARISTAS = 24;
+    private static final int POS_CRC = 28;
+
+    private static volatile Path directorio = directorioPorDefecto();
+
+    private AlmacenTablas() {
+    }
+
+    /** Directorio donde para() busca y guarda las tablas; null para no usar disco. */
+    public static void setDirectorio(Path directorio) {
+        AlmacenTablas.directorio = directorio;
+    }
+
+    public static Path getDirectorio() {
+        return directorio;
+    }
+
+    private static Path directorioPorDefecto() {
+        String d = System.getProperty(PROPIEDAD_DIRECTORIO);
+        return d != null && !d.isEmpty() ? Paths.get(d) : null;
+    }
+
+    /** Archivo de la tabla de estados de un (N, K) en el directorio. */
+    public static Path archivoGrafo(Path directorio, int n, int capacidad) {
+        return directorio.resolve("grafo-" + n + "-" + capacidad + ".tbl");
+    }
+
+    /** Archivo de las distancias de un (N, K) en el directorio. */
+    public static Path archivoOraculo(Path directorio, int n, int capacidad) {
+        return directorio.resolve("distancias-" + n + "-" + capacidad + ".tbl");
+    }
+
+    // ---- Escritura ----
+
+    public static void escribir(GrafoEstados g, Path archivo) throws IOException {
+        int filas = g.getNumeroFilas();
+        int aristas = g.getNumeroAristas();
+        long datos = 4L * (filas + 1) + 8L * aristas + aristas;
+        escribir(archivo, TIPO_GRAFO, g.getN(), g.getCapacidad(), filas, aristas, datos, b -> {
+            poner(b, g.tablaInicioFila());
+            poner(b, g.tablaDestino());
+            poner(b, g.tablaMovimiento());
+            b.put(g.tablaBanderas());
+        });
+    }
+
+    public static void escribir(OraculoDistancias o, Path archivo) throws IOException {
+        int filas = GrafoEstados.numeroFilas(o.getN());
+        escribir(archivo, TIPO_ORACULO, o.getN(), o.getCapacidad(), filas, 0, 12L * filas, b -> {
+            poner(b, o.tablaDistancia());
+            poner(b, o.tablaMovimientoOptimo());
+            poner(b, o.tablaSiguiente());
+        });
+    }
+
+    private interface Datos {
+        void escribir(ByteBuffer destino);
+    }
+
+    private static void escribir(Path archivo, int tipo, int n, int capacidad, int filas, int aristas, long datos,
+                                 Datos contenido) throws IOException {
+        long total = TAMANO_ENCABEZADO + datos;
+        if (total > Integer.MAX_VALUE)
+            throw new IOException("Tabla demasiado grande para un archivo mapeado: " + total + " bytes");
+        Path dir = archivo.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        // Con los permisos de un archivo normal (createTempFile lo dejaría solo para el dueño)
+        Path temporal = dir.resolve(archivo.getFileName() + "." + ProcessHandle.current().pid() + "-"
+                + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer b = canal.map(FileChannel.MapMode.READ_WRITE, 0, total);
+                b.order(ByteOrder.LITTLE_ENDIAN);
+                b.position(TAMANO_ENCABEZADO);
+                contenido.escribir(b);
+                b.putInt(POS_MAGIA, MAGIA);
+                b.putInt(POS_VERSION, VERSION);
+                b.putInt(POS_TIPO, tipo);
+                b.putInt(POS_N, n);
+                b.putInt(POS_K, capacidad);
+                b.putInt(POS_FILAS, filas);
+                b.putInt(POS_ARISTAS, aristas);
+                b.putInt(POS_CRC, crc(b));
+                b.force();
+            }
+            mover(temporal, archivo);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private static void poner(ByteBuffer destino, IntBuffer tabla) {
+        tabla.rewind();
+        int desde = destino.position();
+        destino.asIntBuffer().put(tabla);
+        destino.position(desde + 4 * tabla.limit());
+    }
+
+    private static void mover(Path temporal, Path archivo) throws IOException {
+        try {
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ---- Lectura ----
+
+    /**
+     * Abre una tabla de estados escrita con escribir(); sus buffers son
+     * vistas del archivo mapeado.
+     *
+     * @throws IOException si no se puede leer o no es una tabla de estados válida
+     */
+    public static GrafoEstados leerGrafo(Path archivo) throws IOException {
+        ByteBuffer b = mapear(archivo, TIPO_GRAFO);
+        int filas = b.getInt(POS_FILAS);
+        int aristas = b.getInt(POS_ARISTAS);
+        if (filas != GrafoEstados.numeroFilas(b.getInt(POS_N)) || aristas < 0
+                || b.capacity() != TAMANO_ENCABEZADO + 4L * (filas + 1) + 9L * aristas)
+            throw new IOException("Tamaños inconsistentes en " + archivo);
+        int pos = TAMANO_ENCABEZADO;
+        IntBuffer inicioFila = ints(b, pos, filas + 1);
+        pos += 4 * (filas + 1);
+        IntBuffer destino = ints(b, pos, aristas);
+        pos += 4 * aristas;
+        IntBuffer movimiento = ints(b, pos, aristas);
+        pos += 4 * aristas;
+        ByteBuffer banderas = vista(b, pos, aristas);
+        return new GrafoEstados(b.getInt(POS_N), b.getInt(POS_K), inicioFila, destino, movimiento, banderas);
+    }
+
+    /**
+     * Abre una tabla de distancias escrita con escribir().
+     *
+     * @throws IOException si no se puede leer o no es una tabla de distancias válida
+     */
+    public static OraculoDistancias leerOraculo(Path archivo) throws IOException {
+        ByteBuffer b = mapear(archivo, TIPO_ORACULO);
+        int filas = b.getInt(POS_FILAS);
+        if (filas != GrafoEstados.numeroFilas(b.getInt(POS_N))
+                || b.capacity() != TAMANO_ENCABEZADO + 12L * filas)
+            throw new IOException("Tamaños inconsistentes en " + archivo);
+        int pos = TAMANO_ENCABEZADO;
+        return new OraculoDistancias(b.getInt(POS_N), b.getInt(POS_K), ints(b, pos, filas),
+                ints(b, pos + 4 * filas, filas), ints(b, pos + 8 * filas, filas));
+    }
+
+    private static ByteBuffer mapear(Path archivo, int tipo) throws IOException {
+        MappedByteBuffer b;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_ENCABEZADO || tamano > Integer.MAX_VALUE)
+                throw new IOException("Tamaño inválido para una tabla: " + archivo);
+            // El mapeo sigue siendo válido después de cerrar el canal
+            b = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+        }
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        if (b.getInt(POS_MAGIA) != MAGIA)
+            throw new IOException("No es un archivo de tablas: " + archivo);
+        if (b.getInt(POS_VERSION) != VERSION)
+            throw new IOException("Versión " + b.getInt(POS_VERSION) + " no soportada: " + archivo);
+        if (b.getInt(POS_TIPO) != tipo)
+            throw new IOException("Tipo de tabla inesperado: " + archivo);
+        if (b.getInt(POS_N) < 1 || b.getInt(POS_K) < 1)
+            throw new IOException("N o K inválidos en " + archivo);
+        if (b.getInt(POS_CRC) != crc(b))
+            throw new IOException("Suma de verificación incorrecta: " + archivo);
+        return b;
+    }
+
+    /** CRC32 de todo lo que sigue al encabezado. */
+    private static int crc(ByteBuffer b) {
+        CRC32 crc = new CRC32();
+        crc.update(vista(b, TAMANO_ENCABEZADO, b.capacity() - TAMANO_ENCABEZADO));
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer vista(ByteBuffer b, int desde, int bytes) {
+        ByteBuffer d = b.duplicate();
+        d.position(desde);
+        d.limit(desde + bytes);
+        return d.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static IntBuffer ints(ByteBuffer b, int desde, int cuantos) {
+        return vista(b, desde, 4 * cuantos).asIntBuffer();
+    }
+
+    // ---- Uso desde para() ----
+
+    /** La tabla del problema si está en el directorio configurado y es válida; si no, null. */
+    static GrafoEstados leerGrafo(Problema problema) {
+        Path dir = directorio;
+        if (dir == null)
+            return null;
+        Path archivo = archivoGrafo(dir, problema.getN(), problema.getCapacidad());
+        if (!Files.isRegularFile(archivo))
+            return null;
+        try {
+            GrafoEstados g = leerGrafo(archivo);
+            if (g.getN() == problema.getN() && g.getCapacidad() == problema.getCapacidad())
+                return g;
+            System.err.println("Tabla de otro problema en " + archivo + "; se reconstruye");
+        } catch (IOException e) {
+            System.err.println("Tabla ignorada: " + e.getMessage());
+        }
+        return null;
+    }
+
+    static OraculoDistancias leerOraculo(Problema problema) {
+        Path dir = directorio;
+        if (dir == null)
+            return null;
+        Path archivo = archivoOraculo(dir, problema.getN(), problema.getCapacidad());
+        if (!Files.isRegularFile(archivo))
+            return null;
+        try {
+            OraculoDistancias o = leerOraculo(archivo);
+            if (o.getN() == problema.getN() && o.getCapacidad() == problema.getCapacidad())
+                return o;
+            System.err.println("Tabla de otro problema en " + archivo + "; se reconstruye");
+        } catch (IOException e) {
+            System.err.println("Tabla ignorada: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /** Guarda la tabla en el directorio configurado, si lo hay; un fallo solo se informa. */
+    static void guardar(GrafoEstados g) {
+        Path dir = directorio;
+        if (dir == null)
+            return;
+        try {
+            escribir(g, archivoGrafo(dir, g.getN(), g.getCapacidad()));
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar " + g + ": " + e.getMessage());
+        }
+    }
+
+    static void guardar(OraculoDistancias o) {
+        Path dir = directorio;
+        if (dir == null)
+            return;
+        try {
+            escribir(o, archivoOraculo(dir, o.getN(), o.getCapacidad()));
+        } catch (IOException e) {
+            System.err.println("No se pudieron guardar las distancias de N=" + o.getN() + ", K="
+                    + o.getCapacidad() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada de resultados, compartible entre hilos, delante de los
+ * motores. La clave es el nombre y la configuración del motor, N, K, el
+ * estado inicial y las opciones que cambian el resultado (modo de
+ * retención, profundidad máxima, límite de nodos y orden de extracción); el
+ * token y el oyente no cuentan, así que un acierto no emite eventos.
+ * Se desaloja lo menos usado recientemente cuando el peso total supera el
+ * máximo: con porEntradas() cada resultado pesa 1, con porNodos() pesa los
+ * nodos que retiene (estimados por sus contadores), de modo que unos pocos
+ * árboles completos grandes no dejan la memoria llena.
+ * Si varios hilos piden a la vez la misma clave, solo el primero busca y
+ * los demás esperan su resultado (respetando cada uno su token). Si esa
+ * búsqueda se cancela o falla no se guarda nada y los que esperaban lo
+ * intentan de nuevo.
+ * Las búsquedas con una heurística propia en las opciones no pasan por la
+ * caché: la heurística no se puede comparar por valor.
+ * Los resultados se comparten tal cual entre quienes los piden; son de solo
+ * lectura una vez devueltos.
+ */
+public final class CacheSoluciones {
+    /** Cada cuánto revisa su token un hilo que espera la búsqueda de otro. */
+    private static final long INTERVALO_ESPERA_MS = 10;
+
+    private final long pesoMaximo;
+    private final boolean pesarPorNodos;
+
+    // Orden de acceso: el primero es el menos usado recientemente. Protegido por this
+    private final LinkedHashMap<Clave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long peso;
+
+    private final ConcurrentHashMap<Clave, CompletableFuture<ResultadoBusqueda>> enCurso = new ConcurrentHashMap<>();
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong compartidas = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    private CacheSoluciones(long pesoMaximo, boolean pesarPorNodos) {
+        if (pesoMaximo < 1)
+            throw new IllegalArgumentException("El peso máximo debe ser positivo: " + pesoMaximo);
+        this.pesoMaximo = pesoMaximo;
+        this.pesarPorNodos = pesarPorNodos;
+    }
+
+    /** Caché de hasta maxEntradas resultados. */
+    public static CacheSoluciones porEntradas(int maxEntradas) {
+        return new CacheSoluciones(maxEntradas, false);
+    }
+
+    /**
+     * Caché de hasta maxNodos nodos retenidos en total: un árbol completo
+     * pesa sus nodos generados más la raíz, un camino su longitud y un
+     * resultado sin árbol pesa 1. Un resultado que solo ya supera el máximo
+     * no se guarda.
+     */
+    public static CacheSoluciones porNodos(long maxNodos) {
+        return new CacheSoluciones(maxNodos, true);
+    }
+
+    /** El motor con esta caché delante; conserva su nombre. */
+    public MotorBusqueda envolver(MotorBusqueda motor) {
+        return new MotorConCache(motor, this);
+    }
+
+    /** De dónde salió el resultado de una consulta. */
+    public enum Origen {
+        /** Ya estaba guardado. */
+        ACIERTO,
+        /** Lo buscó el motor en este hilo (también si no se podía guardar). */
+        FALLO,
+        /** Lo buscó otro hilo, que lo estaba buscando cuando se pidió. */
+        COMPARTIDA
+    }
+
+    /** Un resultado y de dónde salió. */
+    public static final class Consulta {
+        private final ResultadoBusqueda resultado;
+        private final Origen origen;
+
+        private Consulta(ResultadoBusqueda resultado, Origen origen) {
+            this.resultado = resultado;
+            this.origen = origen;
+        }
+
+        public ResultadoBusqueda getResultado() { return resultado; }
+        public Origen getOrigen() { return origen; }
+    }
+
+    /**
+     * El resultado guardado para esta búsqueda, o el de resolverla con el
+     * motor (y guardarlo).
+     *
+     * @throws CancellationException si se cancela el token de las opciones,
+     *         también mientras se espera la búsqueda de otro hilo
+     */
+    public ResultadoBusqueda resolver(MotorBusqueda motor, Problema problema, OpcionesBusqueda opciones) {
+        return consultar(motor, problema, opciones).getResultado();
+    }
+
+    /**
+     * Como resolver(), pero dice además si el resultado estaba guardado: el
+     * tiempo y la memoria de las estadísticas de un acierto son los de la
+     * búsqueda original, no los de esta consulta.
+     */
+    public Consulta consultar(MotorBusqueda motor, Problema problema, OpcionesBusqueda opciones) {
+        if (opciones.getHeuristica() != null)
+            return new Consulta(motor.resolver(problema, opciones), Origen.FALLO);
+        Clave clave = new Clave(motor, problema, opciones);
+        while (true) {
+            ResultadoBusqueda r = buscar(clave);
+            if (r != null) {
+                aciertos.incrementAndGet();
+                return new Consulta(r, Origen.ACIERTO);
+            }
+            CompletableFuture<ResultadoBusqueda> propia = new CompletableFuture<>();
+            CompletableFuture<ResultadoBusqueda> otra = enCurso.putIfAbsent(clave, propia);
+            if (otra == null)
+                return calcular(clave, propia, motor, problema, opciones);
+            compartidas.incrementAndGet();
+            r = esperar(otra, opciones.getTokenCancelacion());
+            if (r != null)
+                return new Consulta(r, Origen.COMPARTIDA);
+            // La búsqueda que se esperaba no terminó: probar de nuevo
+        }
+    }
+
+    private Consulta calcular(Clave clave, CompletableFuture<ResultadoBusqueda> propia, MotorBusqueda motor,
+                              Problema problema, OpcionesBusqueda opciones) {
+        ResultadoBusqueda r;
+        Origen origen;
+        try {
+            // Otra búsqueda de la misma clave pudo terminar entre buscar() y putIfAbsent()
+            r = buscar(clave);
+            if (r != null) {
+                aciertos.incrementAndGet();
+                origen = Origen.ACIERTO;
+            } else {
+                fallos.incrementAndGet();
+                r = motor.resolver(problema, opciones);
+                guardar(clave, r);
+                origen = Origen.FALLO;
+            }
+        } catch (RuntimeException | Error e) {
+            enCurso.remove(clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+        // Se quita después de guardar: quien no la vea en curso la encuentra en la caché
+        enCurso.remove(clave, propia);
+        propia.complete(r);
+        return new Consulta(r, origen);
+    }
+
+    /** Resultado de la búsqueda de otro hilo, o null si se canceló o falló. */
+    private static ResultadoBusqueda esperar(CompletableFuture<ResultadoBusqueda> otra, TokenCancelacion token) {
+        while (true) {
+            if (token != null)
+                token.verificar();
+            try {
+                return otra.get(INTERVALO_ESPERA_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // seguir esperando
+            } catch (ExecutionException | CancellationException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Espera interrumpida");
+            }
+        }
+    }
+
+    private synchronized ResultadoBusqueda buscar(Clave clave) {
+        Entrada e = entradas.get(clave);
+        return e != null ? e.resultado : null;
+    }
+
+    private synchronized void guardar(Clave clave, ResultadoBusqueda r) {
+        long p = pesarPorNodos ? nodosRetenidos(clave.modo, r) : 1;
+        if (p > pesoMaximo)
+            return;
+        Entrada anterior = entradas.put(clave, new Entrada(r, p));
+        if (anterior != null)
+            peso -= anterior.peso;
+        peso += p;
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (peso > pesoMaximo && it.hasNext()) {
+            Entrada e = it.next();
+            it.remove();
+            peso -= e.peso;
+            desalojos.incrementAndGet();
+        }
+    }
+
+    private static long nodosRetenidos(ModoRetencion modo, ResultadoBusqueda r) {
+        switch (modo) {
+            case ARBOL_COMPLETO:
+                // Todo nodo generado queda en el árbol, más la raíz
+                return 1L + r.getEstadisticas().getGenerados();
+            case SOLO_CAMINO:
+                return 1L + r.getLongitudSolucion();
+            default:
+                return 1;
+        }
+    }
+
+    /** Vacía la caché; los contadores se conservan. */
+    public synchronized void limpiar() {
+        entradas.clear();
+        peso = 0;
+    }
+
+    public synchronized int getEntradas() { return entradas.size(); }
+    public synchronized long getPeso() { return peso; }
+    public long getPesoMaximo() { return pesoMaximo; }
+    /** Búsquedas respondidas con un resultado guardado. */
+    public long getAciertos() { return aciertos.get(); }
+    /** Búsquedas que tuvieron que correr el motor. */
+    public long getFallos() { return fallos.get(); }
+    /** Búsquedas que esperaron la misma búsqueda en curso en otro hilo. */
+    public long getCompartidas() { return compartidas.get(); }
+    public long getDesalojos() { return desalojos.get(); }
+
+    @Override
+    public String toString() {
+        return "Caché: " + getAciertos() + " aciertos, " + getFallos() + " fallos, " + getCompartidas()
+                + " compartidas, " + getDesalojos() + " desalojos, " + getEntradas() + " entradas (peso "
+                + getPeso() + "/" + pesoMaximo + ")";
+    }
+
+    private static final class Entrada {
+        final ResultadoBusqueda resultado;
+        final long peso;
+
+        Entrada(ResultadoBusqueda resultado, long peso) {
+            this.resultado = resultado;
+            this.peso = peso;
+        }
+    }
+
+    private static final class Clave {
+        final String motor;
+        final String configuracion;
+        final int n;
+        final int capacidad;
+        final int inicial;
+        final ModoRetencion modo;
+        final int profundidadMaxima;
+        final int limiteNodos;
+        final boolean extraerMaximo;
+
+        Clave(MotorBusqueda motor, Problema problema, OpcionesBusqueda opciones) {
+            this.motor = motor.getNombre();
+            this.configuracion = motor.getConfiguracion();
+            this.n = problema.getN();
+            this.capacidad = problema.getCapacidad();
+            this.inicial = EstadoCodificado.codificar(problema.getInicial());
+            this.modo = opciones.getModoRetencion();
+            this.profundidadMaxima = opciones.getProfundidadMaxima();
+            this.limiteNodos = opciones.getLimiteNodos();
+            this.extraerMaximo = opciones.isExtraerMaximo();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Clave))
+                return false;
+            Clave c = (Clave) o;
+            return n == c.n && capacidad == c.capacidad && inicial == c.inicial && modo == c.modo
+                    && profundidadMaxima == c.profundidadMaxima && limiteNodos == c.limiteNodos
+                    && extraerMaximo == c.extraerMaximo && motor.equals(c.motor)
+                    && configuracion.equals(c.configuracion);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = motor.hashCode();
+            h = 31 * h + configuracion.hashCode();
+            h = 31 * h + n;
+            h = 31 * h + capacidad;
+            h = 31 * h + inicial;
+            h = 31 * h + modo.hashCode();
+            h = 31 * h + profundidadMaxima;
+            h = 31 * h + limiteNodos;
+            return 31 * h + (extraerMaximo ? 1 : 0);
+        }
+    }
+
+    /** Motor que pasa por la caché. Como cualquier motor, no se usa desde dos hilos a la vez. */
+    private static final class MotorConCache implements MotorBusqueda {
+        private final MotorBusqueda motor;
+        private final CacheSoluciones cache;
+
+        MotorConCache(MotorBusqueda motor, CacheSoluciones cache) {
+            this.motor = motor;
+            this.cache = cache;
+        }
+
+        @Override
+        public String getNombre() {
+            return motor.getNombre();
+        }
+
+        @Override
+        public String getConfiguracion() {
+            return motor.getConfiguracion();
+        }
+
+        @Override
+        public ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
+            return cache.resolver(motor, problema, opciones);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+
+/**
+ * Heurística admisible: cota inferior de viajes según las P = M + C
+ * personas a la izquierda y la capacidad K.
+ * Con la lancha a la izquierda, cada ida y vuelta pasa como mucho K - 1
+ * personas netas y el último viaje K, así que hacen falta al menos
+ * 2 * ceil((P - K) / (K - 1)) + 1 viajes. Con la lancha a la derecha
+ * primero hay que volver con alguien: 1 + la cota para P + 1.
+ */
+public final class CotaViajes implements Heuristica {
+    private final int k;
+
+    public CotaViajes(int capacidad) {
+        this.k = capacidad;
+    }
+
+    @Override
+    public int estimar(int codigo) {
+        int p = EstadoCodificado.misioneros(codigo) + EstadoCodificado.canibales(codigo);
+        if (p == 0)
+            return 0; // el objetivo, o (0, 0, 0), que no tiene movimientos
+        return EstadoCodificado.lado(codigo) == 0 ? desdeIzquierda(p) : 1 + desdeIzquierda(p + 1);
+    }
+
+    private int desdeIzquierda(int p) {
+        if (p <= k)
+            return 1;
+        if (k == 1)
+            return 2 * p - 1;
+        return 2 * ((p - k + k - 2) / (k - 1)) + 1;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+
+/**
+ * Generador de sucesores compartido por todos los motores. Escribe los
+ * códigos de los hijos y el índice de su movimiento en buffers int del
+ * llamador, sin crear objetos.
+ * Cada carga de la lancha se precalcula como un delta sobre el código
+ * (m << 16 | c << 1), de modo que aplicar un movimiento es una suma o una
+ * resta más el cambio de lado. Los hijos salen en el orden de los
+ * movimientos de Problema, incluidos los inválidos; filtrar es cosa del motor.
+ * Creado con para(), copia los sucesores de la tabla precalculada
+ * GrafoEstados cuando el problema cabe en ella.
+ */
+public final class GeneradorSucesores {
+    private final Problema problema;
+    private final int n;
+    private final int[] movMisioneros;
+    private final int[] movCanibales;
+    private final int[] delta;
+    private final GrafoEstados grafo; // null: siempre aritmético
+
+    /** Generador aritmético, sin tabla. */
+    public GeneradorSucesores(Problema problema) {
+        this(problema, null);
+    }
+
+    private GeneradorSucesores(Problema problema, GrafoEstados grafo) {
+        this.problema = problema;
+        this.grafo = grafo;
+        this.n = problema.getN();
+        int k = problema.getNumeroMovimientos();
+        movMisioneros = new int[k];
+        movCanibales = new int[k];
+        delta = new int[k];
+        for (int i = 0; i < k; i++) {
+            movMisioneros[i] = problema.getMisionerosMovimiento(i);
+            movCanibales[i] = problema.getCanibalesMovimiento(i);
+            delta[i] = EstadoCodificado.codificar(movMisioneros[i], movCanibales[i], 0);
+        }
+    }
+
+    /** Generador respaldado por la tabla de GrafoEstados si se puede construir. */
+    public static GeneradorSucesores para(Problema problema) {
+        return new GeneradorSucesores(problema, GrafoEstados.para(problema));
+    }
+
+    public Problema getProblema() { return problema; }
+
+    /** Tabla usada, o null si el generador es aritmético. */
+    public GrafoEstados getGrafo() { return grafo; }
+
+    /** Máximo de sucesores de un estado: tamaño mínimo de los buffers. */
+    public int getMaxSucesores() { return delta.length; }
+
+    /**
+     * Escribe los sucesores del estado en hijos/movs a partir de base y
+     * devuelve cuántos hay.
+     */
+    public int expandir(int codigo, int[] hijos, int[] movs, int base) {
+        if (grafo != null) {
+            int cuantos = grafo.expandir(codigo, hijos, movs, base);
+            if (cuantos >= 0)
+                return cuantos;
+        }
+        int M = EstadoCodificado.misioneros(codigo);
+        int C = EstadoCodificado.canibales(codigo);
+        int k = base;
+
+        if (EstadoCodificado.lado(codigo) == 0) {
+            // Lancha a la izquierda: (M-m, C-c, 1)
+            for (int i = 0; i < delta.length; i++) {
+                if (M < movMisioneros[i] || C < movCanibales[i])
+                    continue;
+                hijos[k] = codigo - delta[i] + 1;
+                movs[k++] = i;
+            }
+        } else {
+            // Lancha a la derecha: (M+m, C+c, 0)
+            for (int i = 0; i < delta.length; i++) {
+                if (M + movMisioneros[i] > n || C + movCanibales[i] > n)
+                    continue;
+                hijos[k] = codigo + delta[i] - 1;
+                movs[k++] = i;
+            }
+        }
+        return k - base;
+    }
+}
@@ -0,0 +1,213 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Espacio de estados precalculado para un (N, K): tabla de adyacencia en
+ * formato CSR (offsets por fila + destinos contiguos) con el movimiento de
+ * cada arista y si el destino es válido u objetivo.
+ * Solo los estados válidos tienen fila, porque son los únicos que se
+ * expanden; sus aristas incluyen los hijos inválidos, en el orden de los
+ * movimientos de Problema, igual que GeneradorSucesores.
+ * Un estado válido tiene M = 0, M = N o M = C, así que hay 2 * (3N + 1)
+ * filas y la fila se calcula del código sin tablas auxiliares.
+ * Es inmutable y se comparte entre hilos; para() la guarda en una caché por
+ * (N, K). Las tablas son buffers: en memoria cuando se construye aquí, o
+ * vistas de un archivo mapeado cuando AlmacenTablas la trae de disco.
+ */
+public final class GrafoEstados {
+    /** Por encima de este número de aristas no se construye la tabla. */
+    public static final long LIMITE_ARISTAS = 1L << 24;
+
+    private static final byte VALIDA = 1;
+    private static final byte OBJETIVO = 2;
+
+    private static final ConcurrentHashMap<Long, GrafoEstados> CACHE = new ConcurrentHashMap<>();
+    // (N, K) que superan LIMITE_ARISTAS, para no volver a contar sus aristas
+    private static final Set<Long> SIN_TABLA = ConcurrentHashMap.newKeySet();
+
+    private final int n;
+    private final int capacidad;
+    private final IntBuffer inicioFila; // aristas de la fila i: [inicioFila[i], inicioFila[i + 1])
+    private final IntBuffer destino;
+    private final IntBuffer movimiento;
+    private final ByteBuffer banderas;
+
+    private GrafoEstados(Problema problema, int numeroAristas) {
+        this.n = problema.getN();
+        this.capacidad = problema.getCapacidad();
+        int filas = numeroFilas(n);
+        int[] inicioFila = new int[filas + 1];
+        int[] destino = new int[numeroAristas];
+        int[] movimiento = new int[numeroAristas];
+        byte[] banderas = new byte[numeroAristas];
+
+        GeneradorSucesores generador = new GeneradorSucesores(problema);
+        int a = 0;
+        for (int fila = 0; fila < filas; fila++) {
+            inicioFila[fila] = a;
+            a += generador.expandir(codigoDeFila(fila), destino, movimiento, a);
+            for (int k = inicioFila[fila]; k < a; k++) {
+                byte b = 0;
+                if (EstadoCodificado.esValido(destino[k], n)) b |= VALIDA;
+                if (EstadoCodificado.esObjetivo(destino[k])) b |= OBJETIVO;
+                banderas[k] = b;
+            }
+        }
+        inicioFila[filas] = a;
+        this.inicioFila = IntBuffer.wrap(inicioFila);
+        this.destino = IntBuffer.wrap(destino);
+        this.movimiento = IntBuffer.wrap(movimiento);
+        this.banderas = ByteBuffer.wrap(banderas);
+    }
+
+    /** Sobre tablas ya hechas (las de un archivo); no las copia. */
+    GrafoEstados(int n, int capacidad, IntBuffer inicioFila, IntBuffer destino, IntBuffer movimiento,
+                 ByteBuffer banderas) {
+        this.n = n;
+        this.capacidad = capacidad;
+        this.inicioFila = inicioFila;
+        this.destino = destino;
+        this.movimiento = movimiento;
+        this.banderas = banderas;
+    }
+
+    /**
+     * Tabla del problema, traída del AlmacenTablas o construida la primera
+     * vez que se pide para su (N, K) y reutilizada después; null si
+     * superaría LIMITE_ARISTAS. Si varios hilos la piden a la vez solo uno
+     * la lee o la construye y la guarda en disco.
+     */
+    public static GrafoEstados para(Problema problema) {
+        long clave = ((long) problema.getN() << 32) | problema.getCapacidad();
+        GrafoEstados g = CACHE.get(clave);
+        if (g != null || SIN_TABLA.contains(clave))
+            return g;
+        return CACHE.computeIfAbsent(clave, k -> {
+            if (SIN_TABLA.contains(k))
+                return null;
+            GrafoEstados t = AlmacenTablas.leerGrafo(problema);
+            if (t == null) {
+                long aristas = contarAristas(problema);
+                if (aristas > LIMITE_ARISTAS) {
+                    SIN_TABLA.add(k);
+                    return null;
+                }
+                t = new GrafoEstados(problema, (int) aristas);
+                AlmacenTablas.guardar(t);
+            }
+            return t;
+        });
+    }
+
+    /** Vacía la caché de tablas. */
+    public static void limpiarCache() {
+        CACHE.clear();
+        SIN_TABLA.clear();
+    }
+
+    private static long contarAristas(Problema problema) {
+        GeneradorSucesores generador = new GeneradorSucesores(problema);
+        int[] hijos = new int[generador.getMaxSucesores()];
+        int[] movs = new int[generador.getMaxSucesores()];
+        long total = 0;
+        int filas = numeroFilas(problema.getN());
+        for (int fila = 0; fila < filas; fila++) {
+            int codigo = codigoDeFila(problema.getN(), fila);
+            total += generador.expandir(codigo, hijos, movs, 0);
+            if (total > LIMITE_ARISTAS)
+                break;
+        }
+        return total;
+    }
+
+    public int getN() { return n; }
+    public int getCapacidad() { return capacidad; }
+    public int getNumeroFilas() { return inicioFila.limit() - 1; }
+    public int getNumeroAristas() { return destino.limit(); }
+
+    /** Fila del estado, o -1 si el estado es inválido. */
+    public int fila(int codigo) {
+        return fila(codigo, n);
+    }
+
+    /** Fila que tendría el estado en la tabla de un problema de tamaño n, o -1 si es inválido. */
+    public static int fila(int codigo, int n) {
+        int m = EstadoCodificado.misioneros(codigo);
+        int c = EstadoCodificado.canibales(codigo);
+        int base;
+        if (m == 0)
+            base = c;
+        else if (m == n)
+            base = (n + 1) + c;
+        else if (m == c)
+            base = 2 * (n + 1) + (m - 1);
+        else
+            return -1;
+        return base * 2 + EstadoCodificado.lado(codigo);
+    }
+
+    public int inicio(int fila) { return inicioFila.get(fila); }
+    public int fin(int fila) { return inicioFila.get(fila + 1); }
+    public int destino(int arista) { return destino.get(arista); }
+    public int movimiento(int arista) { return movimiento.get(arista); }
+    public boolean esValida(int arista) { return (banderas.get(arista) & VALIDA) != 0; }
+    public boolean esObjetivo(int arista) { return (banderas.get(arista) & OBJETIVO) != 0; }
+
+    /**
+     * Copia los sucesores de un estado válido en hijos/movs a partir de base
+     * y devuelve cuántos hay, o -1 si el estado no tiene fila.
+     */
+    public int expandir(int codigo, int[] hijos, int[] movs, int base) {
+        int fila = fila(codigo);
+        if (fila < 0)
+            return -1;
+        int desde = inicioFila.get(fila);
+        int cuantos = inicioFila.get(fila + 1) - desde;
+        for (int i = 0; i < cuantos; i++) {
+            hijos[base + i] = destino.get(desde + i);
+            movs[base + i] = movimiento.get(desde + i);
+        }
+        return cuantos;
+    }
+
+    /** Número de estados válidos (filas) de un problema de tamaño n. */
+    public static int numeroFilas(int n) {
+        return 2 * (3 * n + 1);
+    }
+
+    private int codigoDeFila(int fila) {
+        return codigoDeFila(n, fila);
+    }
+
+    /** Inversa de fila(codigo, n). */
+    public static int codigoDeFila(int n, int fila) {
+        int lado = fila & 1;
+        int base = fila >>> 1;
+        if (base <= n)
+            return EstadoCodificado.codificar(0, base, lado);
+        base -= n + 1;
+        if (base <= n)
+            return EstadoCodificado.codificar(n, base, lado);
+        base -= n + 1;
+        return EstadoCodificado.codificar(base + 1, base + 1, lado);
+    }
+
+    // Para AlmacenTablas: vistas de solo lectura desde el inicio
+    IntBuffer tablaInicioFila() { return inicioFila.asReadOnlyBuffer(); }
+    IntBuffer tablaDestino() { return destino.asReadOnlyBuffer(); }
+    IntBuffer tablaMovimiento() { return movimiento.asReadOnlyBuffer(); }
+    ByteBuffer tablaBanderas() { return banderas.asReadOnlyBuffer(); }
+
+    @Override
+    public String toString() {
+        return "GrafoEstados[N=" + n + ", K=" + capacidad + ", filas=" + getNumeroFilas()
+                + ", aristas=" + getNumeroAristas() + "]";
+    }
+}
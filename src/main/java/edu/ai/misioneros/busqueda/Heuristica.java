@@ -0,0 +1,16 @@
+package edu.ai.misioneros.busqueda;
+
+/**
+ * Estimación sobre estados codificados que usa A*:
+ * FH = g + estimar(estado) + penalizacion(estado).
+ * Una instancia corresponde a un problema concreto (depende de N).
+ */
+public interface Heuristica {
+
+    int estimar(int codigo);
+
+    /** Término adicional de FH; por defecto ninguno. */
+    default int penalizacion(int codigo) {
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+/**
+ * API común de los algoritmos de búsqueda: recibe el problema y las opciones
+ * y devuelve un ResultadoBusqueda. Permite intercambiar y comparar motores
+ * sin conocer su clase concreta.
+ * Los motores reutilizan sus buffers entre llamadas, así que una instancia
+ * no debe resolver desde dos hilos a la vez.
+ */
+public interface MotorBusqueda {
+
+    /** Nombre para mostrar (por ejemplo "A*"). */
+    String getNombre();
+
+    /**
+     * Ajustes de la instancia que cambian lo que devuelve resolver() para el
+     * mismo problema y opciones (por ejemplo, el número de hilos). Con el
+     * nombre distingue los resultados en CacheSoluciones; "" si no tiene.
+     */
+    default String getConfiguracion() {
+        return "";
+    }
+
+    /**
+     * @throws java.util.concurrent.CancellationException si se cancela el
+     *         token de las opciones durante la búsqueda
+     */
+    ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones);
+}
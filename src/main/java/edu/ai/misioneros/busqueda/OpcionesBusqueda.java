@@ -0,0 +1,79 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.ModoRetencion;
+
+/**
+ * Opciones de una búsqueda. Cada motor usa las que le aplican e ignora el
+ * resto (por ejemplo, el orden de extracción solo afecta a A*).
+ */
+public class OpcionesBusqueda {
+    private ModoRetencion modoRetencion = ModoRetencion.ARBOL_COMPLETO;
+    private int profundidadMaxima = Integer.MAX_VALUE;
+    private int limiteNodos = Integer.MAX_VALUE;
+    private boolean extraerMaximo = true;
+    private Heuristica heuristica; // null: la propia del algoritmo
+    private TokenCancelacion tokenCancelacion; // null: no se puede cancelar
+    private OyenteBusqueda oyente;             // null: sin eventos
+
+    public OpcionesBusqueda() {
+    }
+
+    public OpcionesBusqueda copia() {
+        OpcionesBusqueda o = new OpcionesBusqueda();
+        o.modoRetencion = modoRetencion;
+        o.profundidadMaxima = profundidadMaxima;
+        o.limiteNodos = limiteNodos;
+        o.extraerMaximo = extraerMaximo;
+        o.heuristica = heuristica;
+        o.tokenCancelacion = tokenCancelacion;
+        o.oyente = oyente;
+        return o;
+    }
+
+    public ModoRetencion getModoRetencion() { return modoRetencion; }
+    public int getProfundidadMaxima() { return profundidadMaxima; }
+    public int getLimiteNodos() { return limiteNodos; }
+    public boolean isExtraerMaximo() { return extraerMaximo; }
+    public Heuristica getHeuristica() { return heuristica; }
+    public TokenCancelacion getTokenCancelacion() { return tokenCancelacion; }
+    public OyenteBusqueda getOyente() { return oyente; }
+
+    /** Qué conserva el resultado; por defecto ARBOL_COMPLETO. */
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        this.modoRetencion = modoRetencion;
+    }
+
+    /** Los nodos con g igual a este valor no se expanden; por defecto sin límite. */
+    public void setProfundidadMaxima(int profundidadMaxima) {
+        this.profundidadMaxima = profundidadMaxima;
+    }
+
+    /** Máximo de nodos expandidos; al agotarlo la búsqueda termina sin solución. */
+    public void setLimiteNodos(int limiteNodos) {
+        this.limiteNodos = limiteNodos;
+    }
+
+    /** Orden de ABIERTOS en A*: true extrae primero el mayor FH (por defecto), false el menor. */
+    public void setExtraerMaximo(boolean extraerMaximo) {
+        this.extraerMaximo = extraerMaximo;
+    }
+
+    /**
+     * Heurística de A* en lugar de la propia (null para volver a ella). Debe
+     * corresponder al problema que se resuelva, por ejemplo
+     * OraculoDistancias.para(problema).comoHeuristica().
+     */
+    public void setHeuristica(Heuristica heuristica) {
+        this.heuristica = heuristica;
+    }
+
+    /** Token que los motores consultan en cada expansión; al cancelarlo lanzan CancellationException. */
+    public void setTokenCancelacion(TokenCancelacion tokenCancelacion) {
+        this.tokenCancelacion = tokenCancelacion;
+    }
+
+    /** Recibe los eventos de la búsqueda mientras ocurre (lo emiten A* y el voraz). */
+    public void setOyente(OyenteBusqueda oyente) {
+        this.oyente = oyente;
+    }
+}
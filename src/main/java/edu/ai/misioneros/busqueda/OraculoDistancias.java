@@ -0,0 +1,173 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distancia exacta (en viajes de la lancha) de cada estado válido al
+ * objetivo (0, 0, 1), calculada con un único BFS hacia atrás desde el
+ * objetivo. Los movimientos son reversibles, así que basta recorrer los
+ * sucesores normales.
+ * Además guarda para cada estado el primer movimiento, en orden de
+ * generación, que baja la distancia en uno; así movimientoOptimo() y
+ * caminoOptimo() son consultas a tabla.
+ * Las tablas usan las filas de GrafoEstados y son de solo lectura: para()
+ * construye una por (N, K) (o la trae de AlmacenTablas) y la comparte entre
+ * hilos.
+ */
+public final class OraculoDistancias {
+    /** Distancia de un estado inválido o desde el que no se llega al objetivo. */
+    public static final int INALCANZABLE = -1;
+
+    private static final ConcurrentHashMap<Long, OraculoDistancias> CACHE = new ConcurrentHashMap<>();
+
+    private final int n;
+    private final int capacidad;
+    private final IntBuffer distancia;         // por fila
+    private final IntBuffer movimientoOptimo;  // por fila; -1 en el objetivo o si es inalcanzable
+    private final IntBuffer siguiente;         // por fila: estado al que lleva movimientoOptimo
+
+    private OraculoDistancias(Problema problema) {
+        this.n = problema.getN();
+        this.capacidad = problema.getCapacidad();
+        int filas = GrafoEstados.numeroFilas(n);
+        int[] distancia = new int[filas];
+        int[] movimientoOptimo = new int[filas];
+        int[] siguiente = new int[filas];
+        Arrays.fill(distancia, INALCANZABLE);
+        Arrays.fill(movimientoOptimo, -1);
+        Arrays.fill(siguiente, -1);
+
+        GeneradorSucesores generador = GeneradorSucesores.para(problema);
+        int[] hijos = new int[generador.getMaxSucesores()];
+        int[] movs = new int[generador.getMaxSucesores()];
+
+        // BFS desde el objetivo; la cola guarda filas
+        int[] cola = new int[filas];
+        int cabeza = 0;
+        int fin = 0;
+        int filaObjetivo = GrafoEstados.fila(EstadoCodificado.OBJETIVO, n);
+        distancia[filaObjetivo] = 0;
+        cola[fin++] = filaObjetivo;
+        while (cabeza < fin) {
+            int fila = cola[cabeza++];
+            int d = distancia[fila] + 1;
+            int k = generador.expandir(GrafoEstados.codigoDeFila(n, fila), hijos, movs, 0);
+            for (int i = 0; i < k; i++) {
+                int f = GrafoEstados.fila(hijos[i], n);
+                if (f >= 0 && distancia[f] == INALCANZABLE) {
+                    distancia[f] = d;
+                    cola[fin++] = f;
+                }
+            }
+        }
+
+        // Primer movimiento que acerca al objetivo, en orden de generación
+        for (int fila = 0; fila < filas; fila++) {
+            int d = distancia[fila];
+            if (d <= 0)
+                continue;
+            int k = generador.expandir(GrafoEstados.codigoDeFila(n, fila), hijos, movs, 0);
+            for (int i = 0; i < k; i++) {
+                int f = GrafoEstados.fila(hijos[i], n);
+                if (f >= 0 && distancia[f] == d - 1) {
+                    movimientoOptimo[fila] = movs[i];
+                    siguiente[fila] = hijos[i];
+                    break;
+                }
+            }
+        }
+        this.distancia = IntBuffer.wrap(distancia);
+        this.movimientoOptimo = IntBuffer.wrap(movimientoOptimo);
+        this.siguiente = IntBuffer.wrap(siguiente);
+    }
+
+    /** Sobre tablas ya hechas (las de un archivo); no las copia. */
+    OraculoDistancias(int n, int capacidad, IntBuffer distancia, IntBuffer movimientoOptimo, IntBuffer siguiente) {
+        this.n = n;
+        this.capacidad = capacidad;
+        this.distancia = distancia;
+        this.movimientoOptimo = movimientoOptimo;
+        this.siguiente = siguiente;
+    }
+
+    /**
+     * Oráculo del problema, traído del AlmacenTablas o construido la primera
+     * vez que se pide para su (N, K).
+     */
+    public static OraculoDistancias para(Problema problema) {
+        long clave = ((long) problema.getN() << 32) | problema.getCapacidad();
+        return CACHE.computeIfAbsent(clave, k -> {
+            OraculoDistancias o = AlmacenTablas.leerOraculo(problema);
+            if (o == null) {
+                o = new OraculoDistancias(problema);
+                AlmacenTablas.guardar(o);
+            }
+            return o;
+        });
+    }
+
+    /** Vacía la caché de oráculos. */
+    public static void limpiarCache() {
+        CACHE.clear();
+    }
+
+    public int getN() { return n; }
+    public int getCapacidad() { return capacidad; }
+
+    /** Viajes que faltan hasta el objetivo, o INALCANZABLE. */
+    public int distancia(int codigo) {
+        int fila = GrafoEstados.fila(codigo, n);
+        return fila < 0 ? INALCANZABLE : distancia.get(fila);
+    }
+
+    /** Índice (en Problema) del movimiento óptimo, o -1 en el objetivo o si no hay camino. */
+    public int movimientoOptimo(int codigo) {
+        int fila = GrafoEstados.fila(codigo, n);
+        return fila < 0 ? -1 : movimientoOptimo.get(fila);
+    }
+
+    /** Estado al que lleva el movimiento óptimo, o -1 si no hay. */
+    public int siguienteEstado(int codigo) {
+        int fila = GrafoEstados.fila(codigo, n);
+        return fila < 0 ? -1 : siguiente.get(fila);
+    }
+
+    /**
+     * Camino óptimo desde el estado hasta el objetivo, ambos incluidos; vacío
+     * si no hay solución.
+     */
+    public int[] caminoOptimo(int codigo) {
+        int d = distancia(codigo);
+        if (d == INALCANZABLE)
+            return new int[0];
+        int[] camino = new int[d + 1];
+        camino[0] = codigo;
+        for (int i = 1; i <= d; i++)
+            camino[i] = siguienteEstado(camino[i - 1]);
+        return camino;
+    }
+
+    /**
+     * Heurística perfecta para A*: la distancia exacta, sin penalizaciones.
+     * Los estados sin camino al objetivo estiman el número de estados, una
+     * cota que ninguna distancia real alcanza. Pensada para extraer el
+     * menor FH (OpcionesBusqueda.setExtraerMaximo(false)).
+     */
+    public Heuristica comoHeuristica() {
+        int sinCamino = distancia.limit();
+        return codigo -> {
+            int d = distancia(codigo);
+            return d == INALCANZABLE ? sinCamino : d;
+        };
+    }
+
+    // Para AlmacenTablas: vistas de solo lectura desde el inicio
+    IntBuffer tablaDistancia() { return distancia.asReadOnlyBuffer(); }
+    IntBuffer tablaMovimientoOptimo() { return movimientoOptimo.asReadOnlyBuffer(); }
+    IntBuffer tablaSiguiente() { return siguiente.asReadOnlyBuffer(); }
+}
@@ -0,0 +1,29 @@
+package edu.ai.misioneros.busqueda;
+
+/**
+ * Recibe los eventos de una búsqueda mientras ocurre, en el hilo del motor.
+ * Los nodos se identifican por su índice en la arena del motor (el mismo que
+ * tendrán en el árbol final) y los argumentos son primitivos, así que
+ * publicar un evento no crea objetos. Las implementaciones deben ser
+ * rápidas y no bloquear: cualquier trabajo pesado va a otro hilo.
+ * Todos los métodos tienen implementación vacía por defecto.
+ */
+public interface OyenteBusqueda {
+
+    /**
+     * Un nodo nuevo en el árbol (la raíz tiene idPadre -1 y movimiento -1).
+     */
+    default void nodoGenerado(int id, int idPadre, int codigo, int g, int h, int f, int movimiento) {
+    }
+
+    /** Se generaron los sucesores del nodo. */
+    default void nodoExpandido(int id) {
+    }
+
+    /** El nodo generado se descartó: estado inválido o repetido sin mejorar g. */
+    default void nodoPodado(int id) {
+    }
+
+    default void objetivoEncontrado(int id) {
+    }
+}
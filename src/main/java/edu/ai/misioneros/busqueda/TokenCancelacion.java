@@ -0,0 +1,40 @@
+package edu.ai.misioneros.busqueda;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Señal de cancelación cooperativa. Los motores la consultan en cada
+ * expansión y, si está activa, abandonan la búsqueda lanzando
+ * CancellationException.
+ * Un token puede tener padre: queda cancelado también cuando se cancela el
+ * padre, así un portafolio puede cancelar sus motores sin tocar el token
+ * del llamador y seguir respetándolo.
+ */
+public class TokenCancelacion {
+    private final TokenCancelacion padre;
+    private volatile boolean cancelado;
+
+    public TokenCancelacion() {
+        this(null);
+    }
+
+    public TokenCancelacion(TokenCancelacion padre) {
+        this.padre = padre;
+    }
+
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean isCancelado() {
+        return cancelado || (padre != null && padre.isCancelado());
+    }
+
+    /**
+     * @throws CancellationException si el token (o su padre) está cancelado
+     */
+    public void verificar() {
+        if (isCancelado())
+            throw new CancellationException("Búsqueda cancelada");
+    }
+}
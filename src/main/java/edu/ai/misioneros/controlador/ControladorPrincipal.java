@@ -1,27 +1,58 @@
 package edu.ai.misioneros.controlador;
 
 import edu.ai.misioneros.algoritmoAestrella.AlgoritmoAEstrella;
+import edu.ai.misioneros.busqueda.CacheSoluciones;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
 import edu.ai.misioneros.logicaVoraz.AlgoritmoVoraz;
 import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.modelo.Problema;
 import edu.ai.misioneros.modelo.ResultadoBusqueda;
+import edu.ai.misioneros.portafolio.CalidadRequerida;
+import edu.ai.misioneros.portafolio.EjecucionMotor;
+import edu.ai.misioneros.portafolio.EjecutorPortafolio;
+import edu.ai.misioneros.portafolio.ResultadoPortafolio;
+import edu.ai.misioneros.vista.ArbolEnVivo;
 import edu.ai.misioneros.vista.PanelArbol;
 import edu.ai.misioneros.vista.PanelInformacion;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controla la ventana principal, botones y visualización.
+ * La resolución corre fuera del hilo de JavaFX: un CompletableFuture lanza
+ * el portafolio en un hilo coordinador, construye allí los árboles y vuelve
+ * con Platform.runLater. Los resultados y el estado de la interfaz solo se
+ * leen y escriben en el hilo de JavaFX.
+ * Mientras los motores buscan, cada panel crece en vivo con sus eventos
+ * (ArbolEnVivo); al terminar se reemplaza por el árbol del resultado.
+ * La interfaz resuelve con el árbol completo para dibujarlo, así que N se
+ * limita a MAX_N_INTERFAZ; los N mayores se resuelven con lote.ResolverLote.
  */
 public class ControladorPrincipal {
+    private static final long MAX_NODOS_CACHE = 2_000_000;
+    private static final int MAX_N_INTERFAZ = 50; // árboles de unos miles de nodos como mucho
+
     private final BorderPane root = new BorderPane();
 
     private final Button btnResolver = new Button("Resolver");
     private final Button btnPaso = new Button("Paso a Paso");
     private final Button btnReiniciar = new Button("Reiniciar");
+    private final Button btnCancelar = new Button("Cancelar");
+    private final Spinner<Integer> spnN = new Spinner<>(1, MAX_N_INTERFAZ, 3);
+    private final Spinner<Integer> spnK = new Spinner<>(1, 100, 2);
+    private final ProgressIndicator indicador = new ProgressIndicator();
+    private final Label lblEstado = new Label();
     private final Slider sldVelocidad = new Slider(0.5, 3.0, 1.0);
 
     private final PanelArbol panelArbolDFS = new PanelArbol();
@@ -39,6 +70,21 @@ public class ControladorPrincipal {
 
     private final PanelInformacion panelInfo = new PanelInformacion();
 
+    private Problema problema = Problema.clasico();
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda();
+    // Repetir un (N, K) ya resuelto no vuelve a buscar
+    private final CacheSoluciones cache = CacheSoluciones.porNodos(MAX_NODOS_CACHE);
+    private final MotorBusqueda motorVoraz = cache.envolver(new AlgoritmoVoraz());
+    private final MotorBusqueda motorAStar = cache.envolver(new AlgoritmoAEstrella());
+    // Hilos reutilizados entre clics (daemon: no impiden cerrar la aplicación)
+    private final EjecutorPortafolio portafolio = new EjecutorPortafolio(2);
+    private final ExecutorService coordinador = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "coordinador-resolucion");
+        t.setDaemon(true);
+        return t;
+    });
+    private TokenCancelacion tokenActual;             // null si no hay resolución en curso
+    private CompletableFuture<Void> resolucionActual;
     private ResultadoBusqueda resultadoDFS;
     private ResultadoBusqueda resultadoAStar;
     private int indiceSolucionDFS = 0;
@@ -55,7 +101,16 @@ public class ControladorPrincipal {
 
     private void construirUI() {
         // TOP
-        HBox top = new HBox(10, btnResolver, btnPaso, btnReiniciar, new Label("Velocidad:"), sldVelocidad);
+        spnN.setEditable(true);
+        spnN.setPrefWidth(90);
+        spnN.setTooltip(new Tooltip("Hasta " + MAX_N_INTERFAZ + "; para N mayores usar el resolvedor por lotes"));
+        spnK.setEditable(true);
+        spnK.setPrefWidth(70);
+        indicador.setPrefSize(24, 24);
+        indicador.setVisible(false);
+        btnCancelar.setDisable(true);
+        HBox top = new HBox(10, btnResolver, btnPaso, btnReiniciar, btnCancelar, new Label("N:"), spnN,
+                new Label("K:"), spnK, new Label("Velocidad:"), sldVelocidad, indicador, lblEstado);
         top.setPadding(new Insets(10));
         top.getStyleClass().add("top-bar");
         root.setTop(top);
@@ -87,6 +142,8 @@ public class ControladorPrincipal {
         ScrollPane scroll = new ScrollPane(panelArbol);
         scroll.setFitToWidth(false);
         scroll.setFitToHeight(false);
+        // El panel dibuja solo lo que muestra la ventana del scroll
+        panelArbol.setVistaDesplazable(scroll);
 
         // Botones de navegación para A* (solo en el panel derecho)
         if (titulo.equals("Algoritmo A*")) {
@@ -119,6 +176,7 @@ public class ControladorPrincipal {
         btnResolver.setOnAction(e -> resolverCompleto());
         btnPaso.setOnAction(e -> pasoAPaso());
         btnReiniciar.setOnAction(e -> reiniciar());
+        btnCancelar.setOnAction(e -> cancelar());
         btnBackDFS.setOnAction(e -> moverIndiceDFS(-1));
         btnNextDFS.setOnAction(e -> moverIndiceDFS(1));
         btnBackAStar.setOnAction(e -> moverIndiceAStar(-1));
@@ -130,42 +188,86 @@ public class ControladorPrincipal {
         btnZoomReset.setOnAction(e -> panelArbolAStar.resetearZoom());
     }
 
-    private void resolverCompleto() {
-        long inicioTotal = System.nanoTime();
+    /**
+     * Lanza ambos algoritmos sin bloquear la interfaz. El futuro devuelto se
+     * completa en el hilo de JavaFX cuando los resultados ya se muestran (o
+     * cuando se canceló o falló la resolución).
+     */
+    private CompletableFuture<Void> resolverCompleto() {
+        if (resolucionActual != null)
+            return resolucionActual;
+        try {
+            problema = new Problema(spnN.getValue(), spnK.getValue());
+        } catch (IllegalArgumentException ex) {
+            lblEstado.setText(ex.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
 
-        // Ejecutar ambos algoritmos en paralelo
-        Thread dfsThread = new Thread(() -> {
-            long inicio = System.nanoTime();
-            AlgoritmoVoraz voraz = new AlgoritmoVoraz();
-            resultadoDFS = voraz.resolver();
-            long fin = System.nanoTime();
-            long tiempo = fin - inicio;
-            System.out.println("Voraz terminó en " + tiempo / 1_000_000.0 + " ms (" + tiempo + " ns)");
-            panelInfo.actualizarTiempoVoraz(tiempo);
-        });
-
-        Thread astarThread = new Thread(() -> {
-            long inicio = System.nanoTime();
-            AlgoritmoAEstrella astar = new AlgoritmoAEstrella();
-            resultadoAStar = astar.resolver();
-            long fin = System.nanoTime();
-            long tiempo = fin - inicio;
-            System.out.println("A* terminó en " + tiempo / 1_000_000.0 + " ms (" + tiempo + " ns)");
-            panelInfo.actualizarTiempoAStar(tiempo);
-        });
-
-        dfsThread.start();
-        astarThread.start();
+        TokenCancelacion token = new TokenCancelacion();
+        OpcionesBusqueda opcionesResolucion = opciones.copia();
+        opcionesResolucion.setTokenCancelacion(token);
+        Problema p = problema;
+        tokenActual = token;
+        enCurso(true, "Resolviendo " + p + "...");
+        List<ArbolEnVivo> enVivo = Arrays.asList(new ArbolEnVivo(panelArbolDFS, p),
+                new ArbolEnVivo(panelArbolAStar, p));
 
-        try {
-            dfsThread.join();
-            astarThread.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        long inicioTotal = System.nanoTime();
+        CompletableFuture<Void> mostrado = new CompletableFuture<>();
+        resolucionActual = mostrado;
+        CompletableFuture
+                // Ejecutar ambos algoritmos en paralelo y esperar a los dos
+                .supplyAsync(() -> portafolio.ejecutar(p, opcionesResolucion,
+                        Arrays.asList(motorVoraz, motorAStar), enVivo, CalidadRequerida.TODOS, 0), coordinador)
+                .thenApply(ejecucion -> {
+                    // Construir aquí los árboles perezosos, no en el hilo de JavaFX
+                    for (EjecucionMotor e : ejecucion.getEjecuciones()) {
+                        if (e.getResultado() != null)
+                            e.getResultado().getRaiz();
+                    }
+                    return ejecucion;
+                })
+                .whenComplete((ejecucion, error) -> Platform.runLater(() -> {
+                    try {
+                        enVivo.forEach(ArbolEnVivo::detener);
+                        terminarResolucion(ejecucion, error, token, inicioTotal);
+                    } finally {
+                        mostrado.complete(null);
+                    }
+                }));
+        return mostrado;
+    }
+
+    /** Corre en el hilo de JavaFX con el resultado del portafolio. */
+    private void terminarResolucion(ResultadoPortafolio ejecucion, Throwable error, TokenCancelacion token,
+                                    long inicioTotal) {
+        tokenActual = null;
+        resolucionActual = null;
+        if (error != null) {
+            error.printStackTrace();
+            enCurso(false, "Error: " + error.getMessage());
+            return;
         }
+        EjecucionMotor voraz = ejecucion.getEjecuciones().get(0);
+        EjecucionMotor astar = ejecucion.getEjecuciones().get(1);
+        for (EjecucionMotor e : ejecucion.getEjecuciones()) {
+            System.out.println(e.getNombre() + " terminó en " + e.getTiempoNs() / 1_000_000.0 + " ms (" + e.getTiempoNs() + " ns)");
+            if (e.getError() != null)
+                e.getError().printStackTrace();
+        }
+        if (token.isCancelado() || voraz.getResultado() == null || astar.getResultado() == null) {
+            enCurso(false, token.isCancelado() ? "Cancelado" : "Error en la búsqueda");
+            return;
+        }
+        resultadoDFS = voraz.getResultado();
+        resultadoAStar = astar.getResultado();
+        panelInfo.actualizarTiempoVoraz(voraz.getTiempoNs());
+        panelInfo.actualizarTiempoAStar(astar.getTiempoNs());
+        panelInfo.actualizarCache(cache);
 
         long finTotal = System.nanoTime();
         System.out.println("Tiempo total: " + (finTotal - inicioTotal) / 1_000_000.0 + " ms");
+        enCurso(false, "");
 
         // Mostrar TODO el árbol desde el inicio
         panelArbolDFS.setDatos(resultadoDFS.getRaiz(), resultadoDFS.getCaminoSolucion());
@@ -182,6 +284,21 @@ public class ControladorPrincipal {
         panelInfo.actualizarResultadoAStar(resultadoAStar);
     }
 
+    private void enCurso(boolean activo, String mensaje) {
+        indicador.setVisible(activo);
+        btnCancelar.setDisable(!activo);
+        btnResolver.setDisable(activo);
+        btnPaso.setDisable(activo);
+        spnN.setDisable(activo);
+        spnK.setDisable(activo);
+        lblEstado.setText(mensaje);
+    }
+
+    private void cancelar() {
+        if (tokenActual != null)
+            tokenActual.cancelar();
+    }
+
     private void expandirTodoElArbol() {
         if (resultadoAStar == null || resultadoAStar.getCaminoSolucion().isEmpty())
             return;
@@ -202,9 +319,16 @@ public class ControladorPrincipal {
     private void pasoAPaso() {
         // Modo: empezar desde el inicio
         if (resultadoAStar == null) {
-            resolverCompleto();
+            resolverCompleto().thenRun(() -> {
+                if (resultadoAStar != null)
+                    iniciarPasoAPaso();
+            });
+            return;
         }
+        iniciarPasoAPaso();
+    }
 
+    private void iniciarPasoAPaso() {
         // Reiniciar el modo paso a paso
         indiceSolucionDFS = 0;
         indiceSolucionAStar = 0;
@@ -221,6 +345,7 @@ public class ControladorPrincipal {
     }
 
     private void reiniciar() {
+        cancelar();
         resultadoDFS = null;
         resultadoAStar = null;
         indiceSolucionDFS = 0;
@@ -0,0 +1,71 @@
+package edu.ai.misioneros.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una resolución completa de un motor: empieza con
+ * EstadisticasBusqueda.iniciarMedicion() y se registra en
+ * terminarMedicion(). Una búsqueda cancelada no deja evento.
+ */
+@Name("edu.ai.misioneros.Busqueda")
+@Label("Búsqueda")
+@Description("Una resolución de un motor, con el problema y los contadores finales")
+@Category({ "Misioneros y Caníbales", "Búsqueda" })
+@StackTrace(false)
+public final class EventoBusqueda extends Event {
+    @Label("Motor")
+    String motor;
+
+    @Label("N")
+    int n;
+
+    @Label("Capacidad")
+    int capacidad;
+
+    @Label("Expandidos")
+    long expandidos;
+
+    @Label("Generados")
+    long generados;
+
+    @Label("Pico de ABIERTOS")
+    int picoAbiertos;
+
+    @Label("CERRADOS")
+    int cerrados;
+
+    @Label("Longitud de la solución")
+    @Description("Movimientos del camino encontrado; -1 si no hubo solución")
+    int longitudSolucion;
+
+    @Label("Bytes asignados")
+    @DataAmount
+    long bytesAsignados;
+
+    public EventoBusqueda(String motor, int n, int capacidad) {
+        this.motor = motor;
+        this.n = n;
+        this.capacidad = capacidad;
+    }
+
+    /** Cierra el evento empezado con begin() y lo registra con los contadores finales. */
+    public void terminar(long expandidos, long generados, int picoAbiertos, int cerrados, int longitudSolucion,
+                         long bytesAsignados) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.expandidos = expandidos;
+        this.generados = generados;
+        this.picoAbiertos = picoAbiertos;
+        this.cerrados = cerrados;
+        this.longitudSolucion = longitudSolucion;
+        this.bytesAsignados = bytesAsignados;
+        commit();
+    }
+}
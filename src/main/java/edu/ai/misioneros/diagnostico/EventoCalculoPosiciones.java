@@ -0,0 +1,39 @@
+package edu.ai.misioneros.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de PanelArbol.calcularPosiciones(), el cálculo del layout;
+ * queda anidado dentro del EventoRedibujado correspondiente.
+ */
+@Name("edu.ai.misioneros.CalculoPosiciones")
+@Label("Cálculo de posiciones")
+@Description("Layout por niveles de los nodos visibles de un PanelArbol")
+@Category({ "Misioneros y Caníbales", "Vista" })
+@StackTrace(false)
+public final class EventoCalculoPosiciones extends Event {
+    @Label("Panel")
+    String panel;
+
+    @Label("Nodos visibles")
+    int nodosVisibles;
+
+    @Label("Nodos posicionados")
+    int nodosPosicionados;
+
+    /** Cierra el evento empezado con begin() y lo registra. */
+    public void terminar(String panel, int nodosVisibles, int nodosPosicionados) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.panel = panel;
+        this.nodosVisibles = nodosVisibles;
+        this.nodosPosicionados = nodosPosicionados;
+        commit();
+    }
+}
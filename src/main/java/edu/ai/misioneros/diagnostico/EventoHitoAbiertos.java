@@ -0,0 +1,47 @@
+package edu.ai.misioneros.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento instantáneo cada vez que ABIERTOS de una búsqueda duplica su
+ * tamaño (a partir de EstadisticasBusqueda.PRIMER_HITO_ABIERTOS). Son
+ * O(log n) por búsqueda, así que se pueden dejar siempre activos.
+ */
+@Name("edu.ai.misioneros.HitoAbiertos")
+@Label("Hito de ABIERTOS")
+@Description("ABIERTOS alcanzó un nuevo múltiplo de dos")
+@Category({ "Misioneros y Caníbales", "Búsqueda" })
+@StackTrace(false)
+public final class EventoHitoAbiertos extends Event {
+    @Label("Motor")
+    String motor;
+
+    @Label("N")
+    int n;
+
+    @Label("Capacidad")
+    int capacidad;
+
+    @Label("Tamaño de ABIERTOS")
+    int tamano;
+
+    @Label("Expandidos hasta ahora")
+    long expandidos;
+
+    public static void registrar(String motor, int n, int capacidad, int tamano, long expandidos) {
+        EventoHitoAbiertos e = new EventoHitoAbiertos();
+        if (!e.shouldCommit())
+            return;
+        e.motor = motor;
+        e.n = n;
+        e.capacidad = capacidad;
+        e.tamano = tamano;
+        e.expandidos = expandidos;
+        e.commit();
+    }
+}
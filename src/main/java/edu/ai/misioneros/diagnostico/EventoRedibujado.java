@@ -0,0 +1,48 @@
+package edu.ai.misioneros.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de PanelArbol.redibujar(): cuánto tarda actualizar la escena
+ * del árbol y con cuántos nodos (los visibles del árbol, los que tienen
+ * visual por caer en la ventana y los que cambiaron de visual o de estilo).
+ * Junto con EventoBusqueda muestra si una sesión lenta se va en buscar o en
+ * dibujar.
+ */
+@Name("edu.ai.misioneros.Redibujado")
+@Label("Redibujado del árbol")
+@Description("Actualización incremental de la disposición y de los nodos dibujados de un PanelArbol")
+@Category({ "Misioneros y Caníbales", "Vista" })
+@StackTrace(false)
+public final class EventoRedibujado extends Event {
+    @Label("Panel")
+    String panel;
+
+    @Label("Nodos visibles")
+    int nodosVisibles;
+
+    @Label("Nodos dibujados")
+    @Description("Nodos con visual en la escena: los que caen en la ventana")
+    int nodosDibujados;
+
+    @Label("Nodos actualizados")
+    @Description("Nodos que recibieron un visual o cambiaron de estilo en este redibujado")
+    int nodosActualizados;
+
+    /** Cierra el evento empezado con begin() y lo registra. */
+    public void terminar(String panel, int nodosVisibles, int nodosDibujados, int nodosActualizados) {
+        end();
+        if (!shouldCommit())
+            return;
+        this.panel = panel;
+        this.nodosVisibles = nodosVisibles;
+        this.nodosDibujados = nodosDibujados;
+        this.nodosActualizados = nodosActualizados;
+        commit();
+    }
+}
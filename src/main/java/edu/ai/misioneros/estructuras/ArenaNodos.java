@@ -0,0 +1,182 @@
+package edu.ai.misioneros.estructuras;
+
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.modelo.Problema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Almacén de nodos de búsqueda en arreglos paralelos (struct-of-arrays):
+ * código de estado, índice del padre, g, h, f y el movimiento como byte.
+ * Un nodo es su índice, así que generar uno no crea objetos. La arena se
+ * reutiliza entre resoluciones con reiniciar(); los objetos Nodo solo se
+ * construyen como vista cuando la interfaz los pide.
+ */
+public class ArenaNodos {
+    public static final int SIN_PADRE = -1;
+    /** Movimiento guardado cuando su índice no cabe en un byte; se deduce de los códigos. */
+    private static final int MOVIMIENTO_DEDUCIDO = 0xFF;
+
+    private int[] codigo;
+    private int[] padre;
+    private int[] g;
+    private int[] h;
+    private int[] f;
+    private byte[] movimiento;
+    private int tamano;
+
+    public ArenaNodos() {
+        this(1024);
+    }
+
+    public ArenaNodos(int capacidadInicial) {
+        int c = Math.max(16, capacidadInicial);
+        codigo = new int[c];
+        padre = new int[c];
+        g = new int[c];
+        h = new int[c];
+        f = new int[c];
+        movimiento = new byte[c];
+    }
+
+    /**
+     * Agrega un nodo y devuelve su índice.
+     *
+     * @param mov índice del movimiento en Problema (ignorado para la raíz)
+     */
+    public int agregar(int cod, int idPadre, int gn, int hn, int fn, int mov) {
+        if (tamano == codigo.length)
+            crecer();
+        int id = tamano++;
+        codigo[id] = cod;
+        actualizar(id, idPadre, gn, hn, fn, mov);
+        return id;
+    }
+
+    /** Cambia padre, g, h, f y movimiento de un nodo existente (mejora de g en sitio). */
+    public void actualizar(int id, int idPadre, int gn, int hn, int fn, int mov) {
+        padre[id] = idPadre;
+        g[id] = gn;
+        h[id] = hn;
+        f[id] = fn;
+        movimiento[id] = (byte) (mov >= 0 && mov < MOVIMIENTO_DEDUCIDO ? mov : MOVIMIENTO_DEDUCIDO);
+    }
+
+    public int codigo(int id) { return codigo[id]; }
+    public int padre(int id) { return padre[id]; }
+    public int g(int id) { return g[id]; }
+    public int h(int id) { return h[id]; }
+    public int f(int id) { return f[id]; }
+    /** Índice del movimiento, o 0xFF si no cabía en un byte (se deduce de los códigos). */
+    public int movimiento(int id) { return movimiento[id] & 0xFF; }
+
+    public int tamano() { return tamano; }
+
+    public void reiniciar() {
+        tamano = 0;
+    }
+
+    /** Copia recortada e independiente, para entregarla en un resultado mientras esta se reutiliza. */
+    public ArenaNodos copiar() {
+        ArenaNodos c = new ArenaNodos(0);
+        c.codigo = Arrays.copyOf(codigo, tamano);
+        c.padre = Arrays.copyOf(padre, tamano);
+        c.g = Arrays.copyOf(g, tamano);
+        c.h = Arrays.copyOf(h, tamano);
+        c.f = Arrays.copyOf(f, tamano);
+        c.movimiento = Arrays.copyOf(movimiento, tamano);
+        c.tamano = tamano;
+        return c;
+    }
+
+    /** Camino raíz -> objetivo como Nodos enlazados por padre (vacío si objetivo < 0). */
+    public List<Nodo> construirCamino(int objetivo, Problema problema) {
+        List<Integer> ids = new ArrayList<>();
+        for (int cur = objetivo; cur != SIN_PADRE; cur = padre[cur])
+            ids.add(cur);
+        Collections.reverse(ids);
+        List<Nodo> camino = new ArrayList<>(ids.size());
+        Nodo anterior = null;
+        for (int id : ids) {
+            anterior = crearNodo(id, anterior, problema);
+            camino.add(anterior);
+        }
+        return camino;
+    }
+
+    /**
+     * Árbol completo: cada nodo cuelga de su padre en el orden en que se
+     * agregó. Requiere que los padres tengan índice menor que sus hijos.
+     */
+    public ArbolBusqueda construirArbol(int objetivo, Problema problema) {
+        Nodo[] nodos = new Nodo[tamano];
+        List<Nodo> todos = new ArrayList<>(tamano);
+        for (int id = 0; id < tamano; id++) {
+            Nodo p = padre[id] == SIN_PADRE ? null : nodos[padre[id]];
+            nodos[id] = crearNodo(id, p, problema);
+            if (p != null)
+                p.agregarHijo(nodos[id]);
+            todos.add(nodos[id]);
+        }
+        List<Nodo> camino = new ArrayList<>();
+        for (int cur = objetivo; cur != SIN_PADRE; cur = padre[cur])
+            camino.add(nodos[cur]);
+        Collections.reverse(camino);
+        return new ArbolBusqueda(tamano > 0 ? nodos[0] : null, camino, todos);
+    }
+
+    /**
+     * Vista en Nodos según el modo de retención: el árbol completo se copia
+     * (esta arena se reutiliza) y se construye solo cuando se pide; con
+     * SOLO_CAMINO se construye el camino ya; con SOLO_ESTADISTICAS es null.
+     */
+    public Supplier<ArbolBusqueda> vista(int objetivo, Problema problema, ModoRetencion modo) {
+        switch (modo) {
+            case ARBOL_COMPLETO: {
+                ArenaNodos copia = copiar();
+                return () -> copia.construirArbol(objetivo, problema);
+            }
+            case SOLO_CAMINO: {
+                List<Nodo> camino = objetivo >= 0 ? construirCamino(objetivo, problema) : new ArrayList<>();
+                ArbolBusqueda a = new ArbolBusqueda(camino.isEmpty() ? null : camino.get(0), camino, null);
+                return () -> a;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private Nodo crearNodo(int id, Nodo nodoPadre, Problema problema) {
+        return new Nodo(codigo[id], problema.getN(), nodoPadre, g[id], h[id], f[id], describir(id, problema));
+    }
+
+    private String describir(int id, Problema problema) {
+        if (padre[id] == SIN_PADRE)
+            return "Inicio";
+        int ladoPartida = EstadoCodificado.lado(codigo[padre[id]]);
+        int mov = movimiento[id] & 0xFF;
+        if (mov == MOVIMIENTO_DEDUCIDO) {
+            int dm = Math.abs(EstadoCodificado.misioneros(codigo[id]) - EstadoCodificado.misioneros(codigo[padre[id]]));
+            int dc = Math.abs(EstadoCodificado.canibales(codigo[id]) - EstadoCodificado.canibales(codigo[padre[id]]));
+            mov = problema.buscarMovimiento(dm, dc);
+        }
+        return problema.getDescripcion(mov, ladoPartida);
+    }
+
+    private void crecer() {
+        int c = codigo.length << 1;
+        codigo = Arrays.copyOf(codigo, c);
+        padre = Arrays.copyOf(padre, c);
+        g = Arrays.copyOf(g, c);
+        h = Arrays.copyOf(h, c);
+        f = Arrays.copyOf(f, c);
+        movimiento = Arrays.copyOf(movimiento, c);
+    }
+}
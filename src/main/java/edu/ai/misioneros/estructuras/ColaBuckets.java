@@ -0,0 +1,226 @@
+package edu.ai.misioneros.estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Cola de prioridad por buckets (Dial) para valores f enteros y acotados.
+ * Guarda identificadores int de nodo; el llamador mantiene la correspondencia
+ * id -> nodo.
+ * Se elige al construirla si extrae el f mínimo o el f máximo. Dentro de un
+ * mismo f se desempata por g mayor primero y, a igualdad de g, el último en
+ * entrar sale primero, así el orden de extracción es determinista.
+ * Insertar y extraer cuestan O(1) amortizado.
+ * Cada id guarda su f, g y posición, de modo que se puede eliminar o cambiar
+ * de prioridad (decrease-key) sin buscarlo ni duplicar entradas; al quitarlo
+ * se corren los que entraron después con su mismo f y g, para que el orden
+ * de llegada se mantenga.
+ */
+public class ColaBuckets {
+    private final boolean extraerMaximo;
+
+    private Bucket[] buckets = new Bucket[64];
+    private int base;          // f del bucket 0
+    private boolean conBase;   // base fijada por la primera inserción
+    private int cursor;        // índice del mejor bucket que puede no estar vacío
+    private int tamano;
+
+    // Por id: f, g y posición dentro de su pila (-1 si no está en la cola)
+    private int[] fDe = new int[64];
+    private int[] gDe = new int[64];
+    private int[] posicion = vacias(64);
+
+    /** Un bucket de f: pilas de ids indexadas por g - baseG. */
+    private static final class Bucket {
+        int[][] pilas = new int[8][];
+        int[] tamanos = new int[8];
+        int baseG;
+        int total;
+        int mejorG = -1; // índice de la pila con mayor g no vacía (-1 si vacío)
+    }
+
+    public ColaBuckets(boolean extraerMaximo) {
+        this.extraerMaximo = extraerMaximo;
+    }
+
+    public boolean isExtraerMaximo() { return extraerMaximo; }
+
+    public void insertar(int id, int f, int g) {
+        if (id >= posicion.length)
+            crecerIds(id);
+        else if (posicion[id] >= 0)
+            throw new IllegalArgumentException("El id " + id + " ya está en la cola");
+        int i = indiceBucket(f);
+        Bucket b = buckets[i];
+        if (b == null) {
+            b = new Bucket();
+            b.baseG = g;
+            buckets[i] = b;
+        }
+        int j = indicePila(b, g);
+        int[] pila = b.pilas[j];
+        if (pila == null) {
+            pila = new int[4];
+            b.pilas[j] = pila;
+        } else if (b.tamanos[j] == pila.length) {
+            pila = Arrays.copyOf(pila, pila.length << 1);
+            b.pilas[j] = pila;
+        }
+        posicion[id] = b.tamanos[j];
+        fDe[id] = f;
+        gDe[id] = g;
+        pila[b.tamanos[j]++] = id;
+        b.total++;
+        if (j > b.mejorG)
+            b.mejorG = j;
+        tamano++;
+
+        if (tamano == 1 || (extraerMaximo ? i > cursor : i < cursor))
+            cursor = i;
+    }
+
+    /**
+     * Extrae el id con mejor f (y mayor g dentro de ese f).
+     *
+     * @throws IllegalStateException si la cola está vacía
+     */
+    public int extraer() {
+        if (tamano == 0)
+            throw new IllegalStateException("Cola vacía");
+        Bucket b = buckets[cursor];
+        while (b == null || b.total == 0) {
+            cursor += extraerMaximo ? -1 : 1;
+            b = buckets[cursor];
+        }
+        int j = b.mejorG;
+        int id = b.pilas[j][--b.tamanos[j]];
+        posicion[id] = -1;
+        despuesDeQuitar(b);
+        return id;
+    }
+
+    public boolean contiene(int id) {
+        return id < posicion.length && posicion[id] >= 0;
+    }
+
+    /**
+     * Quita el id de la cola.
+     *
+     * @return false si no estaba
+     */
+    public boolean eliminar(int id) {
+        if (!contiene(id))
+            return false;
+        Bucket b = buckets[fDe[id] - base];
+        int j = gDe[id] - b.baseG;
+        int[] pila = b.pilas[j];
+        int p = posicion[id];
+        // Se corre el resto hacia abajo para conservar el orden de llegada
+        int restantes = --b.tamanos[j] - p;
+        System.arraycopy(pila, p + 1, pila, p, restantes);
+        for (int i = p; i < p + restantes; i++)
+            posicion[pila[i]] = i;
+        posicion[id] = -1;
+        despuesDeQuitar(b);
+        return true;
+    }
+
+    /** Cambia la prioridad de un id que ya está en la cola. */
+    public void actualizar(int id, int f, int g) {
+        if (!eliminar(id))
+            throw new IllegalArgumentException("El id " + id + " no está en la cola");
+        insertar(id, f, g);
+    }
+
+    private void despuesDeQuitar(Bucket b) {
+        b.total--;
+        if (b.total == 0) {
+            b.mejorG = -1;
+        } else {
+            while (b.tamanos[b.mejorG] == 0)
+                b.mejorG--;
+        }
+        tamano--;
+    }
+
+    /** f del próximo elemento a extraer. */
+    public int verMejorF() {
+        if (tamano == 0)
+            throw new IllegalStateException("Cola vacía");
+        while (buckets[cursor] == null || buckets[cursor].total == 0)
+            cursor += extraerMaximo ? -1 : 1;
+        return base + cursor;
+    }
+
+    public boolean estaVacia() { return tamano == 0; }
+
+    public int tamano() { return tamano; }
+
+    public void limpiar() {
+        Arrays.fill(buckets, null);
+        Arrays.fill(posicion, -1);
+        conBase = false;
+        cursor = 0;
+        tamano = 0;
+    }
+
+    private void crecerIds(int id) {
+        int nuevaLong = Math.max(posicion.length << 1, id + 1);
+        fDe = Arrays.copyOf(fDe, nuevaLong);
+        gDe = Arrays.copyOf(gDe, nuevaLong);
+        int viejaLong = posicion.length;
+        posicion = Arrays.copyOf(posicion, nuevaLong);
+        Arrays.fill(posicion, viejaLong, nuevaLong, -1);
+    }
+
+    private static int[] vacias(int n) {
+        int[] a = new int[n];
+        Arrays.fill(a, -1);
+        return a;
+    }
+
+    private int indiceBucket(int f) {
+        if (!conBase) {
+            // Dejar margen a ambos lados de la primera f
+            base = f - buckets.length / 2;
+            conBase = true;
+        }
+        int i = f - base;
+        if (i < 0) {
+            int falta = -i;
+            int nuevaLong = Math.max(buckets.length << 1, buckets.length + falta + 16);
+            int desplazamiento = nuevaLong - buckets.length;
+            Bucket[] nuevos = new Bucket[nuevaLong];
+            System.arraycopy(buckets, 0, nuevos, desplazamiento, buckets.length);
+            buckets = nuevos;
+            base -= desplazamiento;
+            cursor += desplazamiento;
+            i += desplazamiento;
+        } else if (i >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(buckets.length << 1, i + 16));
+        }
+        return i;
+    }
+
+    private static int indicePila(Bucket b, int g) {
+        int j = g - b.baseG;
+        if (j < 0) {
+            int desplazamiento = Math.max(-j, b.pilas.length);
+            int nuevaLong = b.pilas.length + desplazamiento;
+            int[][] pilas = new int[nuevaLong][];
+            int[] tamanos = new int[nuevaLong];
+            System.arraycopy(b.pilas, 0, pilas, desplazamiento, b.pilas.length);
+            System.arraycopy(b.tamanos, 0, tamanos, desplazamiento, b.tamanos.length);
+            b.pilas = pilas;
+            b.tamanos = tamanos;
+            b.baseG -= desplazamiento;
+            if (b.mejorG >= 0)
+                b.mejorG += desplazamiento;
+            j += desplazamiento;
+        } else if (j >= b.pilas.length) {
+            int nuevaLong = Math.max(b.pilas.length << 1, j + 1);
+            b.pilas = Arrays.copyOf(b.pilas, nuevaLong);
+            b.tamanos = Arrays.copyOf(b.tamanos, nuevaLong);
+        }
+        return j;
+    }
+}
@@ -0,0 +1,39 @@
+package edu.ai.misioneros.estructuras;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+
+/**
+ * Mapa primitivo de estado codificado -> int (por ejemplo, g en la lista
+ * cerrada). Evita el boxing y los nodos de HashMap en el camino caliente.
+ */
+public interface MapaEstados {
+    /** Valor devuelto por obtener() cuando el estado no está en el mapa. */
+    int AUSENTE = Integer.MIN_VALUE;
+
+    /** Por encima de este número de estados se usa direccionamiento abierto en vez de un arreglo denso. */
+    long LIMITE_DENSO = 1L << 22;
+
+    int obtener(int codigo);
+
+    boolean contiene(int codigo);
+
+    void poner(int codigo, int valor);
+
+    boolean eliminar(int codigo);
+
+    int tamano();
+
+    void limpiar();
+
+    /**
+     * Elige la implementación según el tamaño del espacio de estados: un
+     * arreglo indexado por estado si está acotado, una tabla hash si no.
+     */
+    static MapaEstados para(Problema problema) {
+        int n = problema.getN();
+        if (EstadoCodificado.numeroEstados(n) <= LIMITE_DENSO)
+            return new MapaEstadosDenso(n);
+        return new MapaEstadosHash();
+    }
+}
@@ -0,0 +1,60 @@
+package edu.ai.misioneros.estructuras;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+
+import java.util.Arrays;
+
+/**
+ * MapaEstados sobre un arreglo con una posición por estado posible
+ * (ver EstadoCodificado.indice()).
+ */
+public class MapaEstadosDenso implements MapaEstados {
+    private final int n;
+    private final int[] valores;
+    private int tamano;
+
+    public MapaEstadosDenso(int n) {
+        this.n = n;
+        this.valores = new int[(int) EstadoCodificado.numeroEstados(n)];
+        Arrays.fill(valores, AUSENTE);
+    }
+
+    @Override
+    public int obtener(int codigo) {
+        return valores[EstadoCodificado.indice(codigo, n)];
+    }
+
+    @Override
+    public boolean contiene(int codigo) {
+        return valores[EstadoCodificado.indice(codigo, n)] != AUSENTE;
+    }
+
+    @Override
+    public void poner(int codigo, int valor) {
+        int i = EstadoCodificado.indice(codigo, n);
+        if (valores[i] == AUSENTE)
+            tamano++;
+        valores[i] = valor;
+    }
+
+    @Override
+    public boolean eliminar(int codigo) {
+        int i = EstadoCodificado.indice(codigo, n);
+        if (valores[i] == AUSENTE)
+            return false;
+        valores[i] = AUSENTE;
+        tamano--;
+        return true;
+    }
+
+    @Override
+    public int tamano() { return tamano; }
+
+    @Override
+    public void limpiar() {
+        if (tamano == 0)
+            return; // nada que borrar: evita recorrer todo el arreglo
+        Arrays.fill(valores, AUSENTE);
+        tamano = 0;
+    }
+}
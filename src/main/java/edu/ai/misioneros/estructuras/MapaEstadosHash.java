@@ -0,0 +1,131 @@
+package edu.ai.misioneros.estructuras;
+
+import java.util.Arrays;
+
+/**
+ * MapaEstados con direccionamiento abierto (sondeo lineal) sobre los códigos
+ * de estado. Claves y valores van en dos arreglos int paralelos; el borrado
+ * desplaza hacia atrás las claves siguientes, así que no quedan lápidas.
+ */
+public class MapaEstadosHash implements MapaEstados {
+    private static final int VACIO = -1; // los códigos de estado nunca son negativos
+    private static final int CAPACIDAD_INICIAL = 1 << 10;
+
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamano;
+
+    public MapaEstadosHash() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public MapaEstadosHash(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(16, capacidadEsperada * 2 - 1)) << 1;
+        reservar(capacidad);
+    }
+
+    private void reservar(int capacidad) {
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(claves, VACIO);
+        mascara = capacidad - 1;
+    }
+
+    private static int mezclar(int codigo) {
+        // fmix32 de MurmurHash3: los códigos tienen bits muy estructurados
+        int h = codigo;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private int buscar(int codigo) {
+        int i = mezclar(codigo) & mascara;
+        while (true) {
+            int k = claves[i];
+            if (k == codigo)
+                return i;
+            if (k == VACIO)
+                return -1;
+            i = (i + 1) & mascara;
+        }
+    }
+
+    @Override
+    public int obtener(int codigo) {
+        int i = buscar(codigo);
+        return i < 0 ? AUSENTE : valores[i];
+    }
+
+    @Override
+    public boolean contiene(int codigo) {
+        return buscar(codigo) >= 0;
+    }
+
+    @Override
+    public void poner(int codigo, int valor) {
+        int i = mezclar(codigo) & mascara;
+        while (true) {
+            int k = claves[i];
+            if (k == codigo) {
+                valores[i] = valor;
+                return;
+            }
+            if (k == VACIO)
+                break;
+            i = (i + 1) & mascara;
+        }
+        claves[i] = codigo;
+        valores[i] = valor;
+        // Factor de carga máximo 0.5
+        if (++tamano > (mascara + 1) >>> 1)
+            crecer();
+    }
+
+    @Override
+    public boolean eliminar(int codigo) {
+        int i = buscar(codigo);
+        if (i < 0)
+            return false;
+        // Desplazamiento hacia atrás: rellenar el hueco con claves que lo necesiten
+        int hueco = i;
+        int j = (i + 1) & mascara;
+        while (claves[j] != VACIO) {
+            int ideal = mezclar(claves[j]) & mascara;
+            // ¿La posición ideal de j queda fuera del tramo (hueco, j]?
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        claves[hueco] = VACIO;
+        tamano--;
+        return true;
+    }
+
+    private void crecer() {
+        int[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        reservar(viejasClaves.length << 1);
+        tamano = 0;
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != VACIO)
+                poner(viejasClaves[i], viejosValores[i]);
+        }
+    }
+
+    @Override
+    public int tamano() { return tamano; }
+
+    @Override
+    public void limpiar() {
+        Arrays.fill(claves, VACIO);
+        tamano = 0;
+    }
+}
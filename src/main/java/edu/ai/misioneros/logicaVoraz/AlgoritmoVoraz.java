@@ -1,142 +1,287 @@
 package edu.ai.misioneros.logicaVoraz;
 
-import edu.ai.misioneros.modelo.Estado;
-import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.busqueda.GeneradorSucesores;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.OyenteBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.estructuras.ArenaNodos;
+import edu.ai.misioneros.estructuras.MapaEstados;
+import edu.ai.misioneros.modelo.ArbolBusqueda;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
 import edu.ai.misioneros.modelo.ResultadoBusqueda;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * Algoritmo Voraz: FH = g + n, donde n = M + C (piezas restantes en la
  * izquierda).j 
  * Genera todos los hijos para visualización y explora siempre el hijo con FH
  * mínimo.
+ * El descenso es iterativo, con una pila explícita de marcos, así que la
+ * profundidad no está limitada por la pila del hilo. Se puede fijar una
+ * profundidad máxima y un presupuesto de nodos expandidos.
+ * Publica los nodos generados, expandidos y el objetivo al OyenteBusqueda
+ * de las opciones, si hay uno.
  */
-public class AlgoritmoVoraz {
+public class AlgoritmoVoraz implements MotorBusqueda {
+    private final OpcionesBusqueda opciones = new OpcionesBusqueda(); // usadas por resolver()
+    private Problema problema;
+    private GeneradorSucesores generador;
+    private final ArenaNodos arena = new ArenaNodos(); // reutilizada entre resoluciones
+
+    // Opciones de la resolución en curso
+    private ModoRetencion modoRetencion;
+    private int profundidadMaxima;
+    private int limiteNodos;
+    private TokenCancelacion token;
+    private OyenteBusqueda oyente;
+    private EstadisticasBusqueda estadisticas;
+    private int frontera; // hijos válidos no visitados que quedan por probar en la pila
+
+    // Pila explícita de marcos, reutilizada entre resoluciones. Los hijos del
+    // marco d ocupan [d * maxHijos, d * maxHijos + marcoNumHijos[d]) en los buffers de hijos.
+    private int maxHijos;
+    private int[] marcoNodo = new int[64];
+    private int[] marcoNumHijos = new int[64];
+    private int[] marcoMinH = new int[64];
+    private int[] marcoSiguiente = new int[64]; // < n: primera pasada (H mínimo); >= n: segunda
+    private int[] marcoPendientes = new int[64]; // parte de la frontera que aporta el marco
+    private int[] hijosCodigo;
+    private int[] hijosMov;
+    private int[] hijosId;
+    private int expandidos;
+
+    public AlgoritmoVoraz() {
+        this(Problema.clasico());
+    }
+
+    public AlgoritmoVoraz(Problema problema) {
+        this.problema = problema;
+    }
+
+    @Override
+    public String getNombre() {
+        return "Voraz";
+    }
+
+    /** Los nodos a esta profundidad (g) no se expanden; por defecto sin límite. */
+    public void setProfundidadMaxima(int profundidadMaxima) {
+        opciones.setProfundidadMaxima(profundidadMaxima);
+    }
+
+    /** Máximo de nodos expandidos; al agotarlo la búsqueda termina sin solución. */
+    public void setLimiteNodos(int limiteNodos) {
+        opciones.setLimiteNodos(limiteNodos);
+    }
+
+    /**
+     * Con ARBOL_COMPLETO (por defecto) se guardan todos los hijos generados
+     * para la vista; con los otros modos solo los nodos visitados.
+     */
+    public void setModoRetencion(ModoRetencion modoRetencion) {
+        opciones.setModoRetencion(modoRetencion);
+    }
 
     public ResultadoBusqueda resolver() {
+        return resolver(problema, opciones);
+    }
+
+    @Override
+    public ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
         long inicio = System.nanoTime();
+        estadisticas = new EstadisticasBusqueda(getNombre(), problema);
+        estadisticas.iniciarMedicion();
+        preparar(problema);
+        modoRetencion = opciones.getModoRetencion();
+        profundidadMaxima = opciones.getProfundidadMaxima();
+        limiteNodos = opciones.getLimiteNodos();
+        token = opciones.getTokenCancelacion();
+        oyente = opciones.getOyente();
 
-        Estado inicial = new Estado(3, 3, 0);
+        arena.reiniciar();
+        int inicial = EstadoCodificado.codificar(problema.getInicial());
     int h0 = heuristica(inicial); // heuristica simple (M + C)
-    // Creamos la raiz; fh se usa por otros algoritmos, aquí la heuristica voraz se calcula con getGreedyH()
-    Nodo raiz = new Nodo(inicial, null, 0, h0, h0, "Inicio");
+    // Creamos la raiz; fh se usa por otros algoritmos, aquí la heuristica voraz se calcula con hVoraz()
+    int raiz = arena.agregar(inicial, ArenaNodos.SIN_PADRE, 0, h0, h0, -1);
+        if (oyente != null)
+            oyente.nodoGenerado(raiz, ArenaNodos.SIN_PADRE, inicial, 0, h0, h0, -1);
 
-        List<Nodo> todos = new ArrayList<>();
-        Set<Estado> visitados = new HashSet<>();
-        todos.add(raiz);
+        MapaEstados visitados = MapaEstados.para(problema); // estado -> g
 
-    Nodo objetivo = vorazMinimoH(raiz, todos, visitados);
+    int objetivo = vorazMinimoH(raiz, visitados);
 
-        List<Nodo> camino = reconstruir(objetivo);
+        int longitud = objetivo >= 0 ? arena.g(objetivo) + 1 : 0;
+        Supplier<ArbolBusqueda> arbol = arena.vista(objetivo, problema, modoRetencion);
+        // ABIERTOS del voraz: los hijos que quedaban por probar en la pila
+        estadisticas.abiertos(frontera);
+        estadisticas.setCerrados(visitados.tamano());
+        estadisticas.setProfundidadSolucion(longitud - 1);
+        estadisticas.terminarMedicion();
         long fin = System.nanoTime();
 
-        return new ResultadoBusqueda(
-                raiz,
-                camino,
-                todos,
-                visitados.size(),
-                0,
-                visitados.size(),
-                fin - inicio);
+        return new ResultadoBusqueda(arbol, estadisticas, fin - inicio, longitud);
     }
 
-    private Nodo vorazMinimoH(Nodo actual, List<Nodo> todos, Set<Estado> visitados) {
-        if (!actual.getEstado().esValido())
-            return null;
-        if (actual.getEstado().esObjetivo())
-            return actual;
-        visitados.add(actual.getEstado());
+    /**
+     * Descenso voraz: en cada nodo se prueban primero los hijos con H mínimo
+     * y luego el resto, en orden de generación, volviendo atrás cuando una
+     * rama no lleva a la solución. Devuelve el índice del objetivo o -1.
+     */
+    private int vorazMinimoH(int raiz, MapaEstados visitados) {
+        expandidos = 0;
+        frontera = 0;
+        int codigoRaiz = arena.codigo(raiz);
+        if (!EstadoCodificado.esValido(codigoRaiz, problema.getN()))
+            return -1;
+        if (EstadoCodificado.esObjetivo(codigoRaiz)) {
+            if (oyente != null)
+                oyente.objetivoEncontrado(raiz);
+            return raiz;
+        }
+        abrirMarco(0, raiz, visitados);
+
+        int profundidad = 0;
+        while (profundidad >= 0) {
+            int d = profundidad;
+            int n = marcoNumHijos[d];
+            int base = d * maxHijos;
 
-        List<Nodo> hijos = expandir(actual);
+            // Siguiente hijo a intentar: primero los de H == minH, luego el resto
+            int elegido = -1;
+            while (marcoSiguiente[d] < 2 * n) {
+                int pos = marcoSiguiente[d]++;
+                boolean primeraPasada = pos < n;
+                int k = base + (primeraPasada ? pos : pos - n);
+                int codigo = hijosCodigo[k];
+                if (!EstadoCodificado.esValido(codigo, problema.getN())) continue;
+                if (visitados.contiene(codigo)) continue;
+                if ((hVoraz(codigo) == marcoMinH[d]) != primeraPasada) continue;
+                elegido = k;
+                break;
+            }
+            if (elegido < 0) {
+                // Ningún hijo llevó a solución: volver al padre
+                frontera -= marcoPendientes[d];
+                profundidad--;
+                continue;
+            }
+            marcoPendientes[d]--;
+            frontera--;
 
-        for (Nodo h : hijos) {
-            actual.agregarHijo(h);
-            todos.add(h);
+            int id = hijosId[elegido] >= 0
+                    ? hijosId[elegido]
+                    : agregarHijo(marcoNodo[d], hijosCodigo[elegido], hijosMov[elegido]);
+            if (EstadoCodificado.esObjetivo(hijosCodigo[elegido])) {
+                if (oyente != null)
+                    oyente.objetivoEncontrado(id);
+                return id;
+            }
+            if (expandidos >= limiteNodos)
+                return -1;
+            if (arena.g(id) >= profundidadMaxima)
+                continue; // hoja por límite de profundidad; no se marca visitado
+            if (profundidad + 1 == marcoNodo.length)
+                crecerPila();
+            abrirMarco(++profundidad, id, visitados);
         }
-        // Calcular H voraz para cada hijo y seleccionar el H mínimo
+        return -1;
+    }
+
+    /**
+     * Marca el nodo como visitado, genera sus hijos en el marco d y calcula
+     * su H mínimo.
+     */
+    private void abrirMarco(int d, int nodo, MapaEstados visitados) {
+        if (token != null)
+            token.verificar();
+        int codigo = arena.codigo(nodo);
+        visitados.poner(codigo, arena.g(nodo));
+        expandidos++;
+        if (oyente != null)
+            oyente.nodoExpandido(nodo);
+        estadisticas.expandido(arena.g(nodo));
+
+        int base = d * maxHijos;
+        int n = generador.expandir(codigo, hijosCodigo, hijosMov, base);
+        estadisticas.generados(n);
+
+        // En modo árbol completo todos los hijos entran en la arena; si no, solo los que se visitan
+        boolean arbolCompleto = modoRetencion == ModoRetencion.ARBOL_COMPLETO;
         int minH = Integer.MAX_VALUE;
-        for (Nodo h : hijos) {
-            int hv = h.getGreedyH();
+        int pendientes = 0;
+        for (int k = base; k < base + n; k++) {
+            hijosId[k] = arbolCompleto ? agregarHijo(nodo, hijosCodigo[k], hijosMov[k]) : -1;
+            if (EstadoCodificado.esValido(hijosCodigo[k], problema.getN())) {
+                estadisticas.valido();
+                if (visitados.contiene(hijosCodigo[k]))
+                    estadisticas.duplicado();
+                else
+                    pendientes++;
+            }
+            // Calcular H voraz para cada hijo y seleccionar el H mínimo
+            int hv = hVoraz(hijosCodigo[k]);
             if (hv < minH) minH = hv;
         }
 
-        // Intentar primero los hijos con H == minH, respetando el orden de generación (izq->der)
-        for (Nodo h : hijos) {
-            if (!h.getEstado().esValido()) continue;
-            if (visitados.contains(h.getEstado())) continue;
-            if (h.getGreedyH() != minH) continue;
-            Nodo sol = vorazMinimoH(h, todos, visitados);
-            if (sol != null) return sol;
-        }
-
-        // Si ninguno de los hijos de H mínimo llevó a solución, intentar el resto en orden
-        for (Nodo h : hijos) {
-            if (!h.getEstado().esValido()) continue;
-            if (visitados.contains(h.getEstado())) continue;
-            if (h.getGreedyH() == minH) continue; // ya intentados
-            Nodo sol = vorazMinimoH(h, todos, visitados);
-            if (sol != null) return sol;
-        }
-        return null;
+        marcoNodo[d] = nodo;
+        marcoNumHijos[d] = n;
+        marcoMinH[d] = minH;
+        marcoSiguiente[d] = 0;
+        marcoPendientes[d] = pendientes;
+        frontera += pendientes;
+        estadisticas.abiertos(frontera);
     }
 
-    private List<Nodo> expandir(Nodo nodo) {
-        Estado e = nodo.getEstado();
-        List<Nodo> hijos = new ArrayList<>();
-        int M = e.getMisionerosIzquierda();
-        int C = e.getCanibalesIzquierda();
-        int L = e.getLanchaLado();
-
-        if (L == 0) {
-            if (M > 0)
-                hijos.add(crearNodo(nodo, new Estado(M - 1, C, 1), "Mover 1 misionero a la derecha"));
-            if (M > 1)
-                hijos.add(crearNodo(nodo, new Estado(M - 2, C, 1), "Mover 2 misioneros a la derecha"));
-            if (C > 0)
-                hijos.add(crearNodo(nodo, new Estado(M, C - 1, 1), "Mover 1 caníbal a la derecha"));
-            if (C > 1)
-                hijos.add(crearNodo(nodo, new Estado(M, C - 2, 1), "Mover 2 caníbales a la derecha"));
-            if (M > 0 && C > 0)
-                hijos.add(crearNodo(nodo, new Estado(M - 1, C - 1, 1), "Mover 1 misionero y 1 caníbal a la derecha"));
-        } else {
-            if (M < 3)
-                hijos.add(crearNodo(nodo, new Estado(M + 1, C, 0), "Mover 1 misionero a la izquierda"));
-            if (M < 2)
-                hijos.add(crearNodo(nodo, new Estado(M + 2, C, 0), "Mover 2 misioneros a la izquierda"));
-            if (C < 3)
-                hijos.add(crearNodo(nodo, new Estado(M, C + 1, 0), "Mover 1 caníbal a la izquierda"));
-            if (C < 2)
-                hijos.add(crearNodo(nodo, new Estado(M, C + 2, 0), "Mover 2 caníbales a la izquierda"));
-            if (M < 3 && C < 3)
-                hijos.add(crearNodo(nodo, new Estado(M + 1, C + 1, 0), "Mover 1 misionero y 1 caníbal a la izquierda"));
-        }
+    /** Ajusta el generador y los buffers de hijos si cambió el problema. */
+    private void preparar(Problema p) {
+        if (generador != null && generador.getProblema() == p)
+            return;
+        problema = p;
+        generador = GeneradorSucesores.para(p);
+        maxHijos = generador.getMaxSucesores();
+        hijosCodigo = new int[marcoNodo.length * maxHijos];
+        hijosMov = new int[marcoNodo.length * maxHijos];
+        hijosId = new int[marcoNodo.length * maxHijos];
+    }
 
-        return hijos;
+    private void crecerPila() {
+        int c = marcoNodo.length << 1;
+        marcoNodo = Arrays.copyOf(marcoNodo, c);
+        marcoNumHijos = Arrays.copyOf(marcoNumHijos, c);
+        marcoMinH = Arrays.copyOf(marcoMinH, c);
+        marcoSiguiente = Arrays.copyOf(marcoSiguiente, c);
+        marcoPendientes = Arrays.copyOf(marcoPendientes, c);
+        hijosCodigo = Arrays.copyOf(hijosCodigo, c * maxHijos);
+        hijosMov = Arrays.copyOf(hijosMov, c * maxHijos);
+        hijosId = Arrays.copyOf(hijosId, c * maxHijos);
     }
 
-    private int heuristica(Estado e) {
-        return e.getMisionerosIzquierda() + e.getCanibalesIzquierda();
+    private int agregarHijo(int padre, int hijoCodigo, int mov) {
+        int g = arena.g(padre) + 1;
+        int h = heuristica(hijoCodigo);
+        int f = g + h; // valor usado por A* u otros; la heurística voraz es hVoraz()
+        int id = arena.agregar(hijoCodigo, padre, g, h, f, mov);
+        if (oyente != null)
+            oyente.nodoGenerado(id, padre, hijoCodigo, g, h, f, mov);
+        return id;
     }
 
-    private Nodo crearNodo(Nodo padre, Estado hijoEstado, String operador) {
-        int g = padre.getNivel() + 1;
-        int h = heuristica(hijoEstado);
-        int f = g + h; // valor usado por A* u otros; la heurística voraz se calcula en Nodo.getGreedyH()
-        return new Nodo(hijoEstado, padre, g, h, f, operador);
+    private int heuristica(int codigo) {
+        return EstadoCodificado.misioneros(codigo) + EstadoCodificado.canibales(codigo);
     }
 
-    private List<Nodo> reconstruir(Nodo objetivo) {
-        List<Nodo> camino = new ArrayList<>();
-        if (objetivo == null)
-            return camino;
-        Nodo cur = objetivo;
-        while (cur != null) {
-            camino.add(cur);
-            cur = cur.getPadre();
-        }
-        Collections.reverse(camino);
-        return camino;
+    /**
+     * H voraz = g + n, con g = misioneros + caníbales a la izquierda y
+     * n = misioneros + caníbales a la derecha (igual que Nodo.getGreedyH()).
+     */
+    private int hVoraz(int codigo) {
+        int g = heuristica(codigo);
+        int n = 2 * problema.getN() - g;
+        return g + n;
     }
 }
-
@@ -0,0 +1,47 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.algoritmoAEstrellaParalelo.AlgoritmoAEstrellaParalelo;
+import edu.ai.misioneros.algoritmoAestrella.AlgoritmoAEstrella;
+import edu.ai.misioneros.algoritmoBidireccional.AlgoritmoBidireccional;
+import edu.ai.misioneros.algoritmoIDAEstrella.AlgoritmoIDAEstrella;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.logicaVoraz.AlgoritmoVoraz;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/** Motores que se pueden pedir en la entrada del lote, por su getNombre(). */
+final class CatalogoMotores {
+    private static final Map<String, Supplier<MotorBusqueda>> FABRICAS = new LinkedHashMap<>();
+
+    static {
+        FABRICAS.put("A*", AlgoritmoAEstrella::new);
+        FABRICAS.put("Voraz", AlgoritmoVoraz::new);
+        FABRICAS.put("Bidireccional", AlgoritmoBidireccional::new);
+        FABRICAS.put("IDA*", AlgoritmoIDAEstrella::new);
+        FABRICAS.put("HDA*", AlgoritmoAEstrellaParalelo::new);
+    }
+
+    private CatalogoMotores() {
+    }
+
+    static Set<String> nombres() {
+        return FABRICAS.keySet();
+    }
+
+    /**
+     * @param hilosPorMotor hilos que puede usar un motor paralelo (HDA*)
+     * @throws IllegalArgumentException si no hay un motor con ese nombre
+     */
+    static MotorBusqueda crear(String nombre, int hilosPorMotor) {
+        Supplier<MotorBusqueda> fabrica = FABRICAS.get(nombre);
+        if (fabrica == null)
+            throw new IllegalArgumentException("Motor desconocido: " + nombre + "; disponibles: " + nombres());
+        MotorBusqueda motor = fabrica.get();
+        if (motor instanceof AlgoritmoAEstrellaParalelo)
+            ((AlgoritmoAEstrellaParalelo) motor).setHilos(hilosPorMotor);
+        return motor;
+    }
+}
@@ -0,0 +1,159 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+
+import java.util.Locale;
+
+/**
+ * Cómo se escribe cada ResultadoInstancia: un objeto JSON por línea
+ * (JSONL) o CSV con encabezado. El camino va como lista de estados
+ * (misioneros, caníbales, lado) en la orilla izquierda. Con caché, el
+ * campo cache dice si el resultado fue ACIERTO, FALLO o COMPARTIDA.
+ */
+enum FormatoSalida {
+    JSONL {
+        @Override
+        String encabezado() {
+            return null;
+        }
+
+        @Override
+        void escribir(ResultadoInstancia r, StringBuilder sb) {
+            sb.append("{\"linea\":").append(r.linea);
+            if (r.problema != null) {
+                sb.append(",\"n\":").append(r.problema.getN());
+                sb.append(",\"k\":").append(r.problema.getCapacidad());
+                sb.append(",\"inicial\":");
+                estadoJson(EstadoCodificado.codificar(r.problema.getInicial()), sb);
+            }
+            if (r.motor != null) {
+                sb.append(",\"motor\":");
+                cadenaJson(r.motor, sb);
+            }
+            sb.append(",\"estado\":\"").append(r.desenlace).append('"');
+            sb.append(",\"movimientos\":").append(r.getMovimientos());
+            sb.append(",\"camino\":[");
+            for (int i = 0; i < r.camino.length; i++) {
+                if (i > 0)
+                    sb.append(',');
+                estadoJson(r.camino[i], sb);
+            }
+            sb.append(']');
+            EstadisticasBusqueda e = r.estadisticas;
+            if (e != null) {
+                sb.append(",\"expandidos\":").append(e.getExpandidos());
+                sb.append(",\"generados\":").append(e.getGenerados());
+                sb.append(",\"validos\":").append(e.getValidos());
+                sb.append(",\"duplicados\":").append(e.getDuplicados());
+                sb.append(",\"reaperturas\":").append(e.getReaperturas());
+                sb.append(",\"picoAbiertos\":").append(e.getPicoAbiertos());
+                sb.append(",\"cerrados\":").append(e.getCerrados());
+                double b = e.getFactorRamificacion();
+                sb.append(",\"factorRamificacion\":")
+                        .append(Double.isNaN(b) ? "null" : String.format(Locale.ROOT, "%.4f", b));
+                sb.append(",\"cpuNs\":").append(r.cpuNs);
+                sb.append(",\"bytesAsignados\":").append(r.bytesAsignados);
+            }
+            sb.append(",\"tiempoNs\":").append(r.tiempoNs);
+            if (r.cache != null)
+                sb.append(",\"cache\":\"").append(r.cache).append('"');
+            if (r.error != null) {
+                sb.append(",\"error\":");
+                cadenaJson(r.error, sb);
+            }
+            sb.append('}');
+        }
+    },
+
+    CSV {
+        @Override
+        String encabezado() {
+            return "linea,n,k,inicial,motor,estado,movimientos,camino,expandidos,generados,validos,duplicados,"
+                    + "reaperturas,picoAbiertos,cerrados,factorRamificacion,cpuNs,bytesAsignados,tiempoNs,cache,error";
+        }
+
+        @Override
+        void escribir(ResultadoInstancia r, StringBuilder sb) {
+            sb.append(r.linea).append(',');
+            if (r.problema != null) {
+                sb.append(r.problema.getN()).append(',').append(r.problema.getCapacidad()).append(',');
+                sb.append(estadoCsv(EstadoCodificado.codificar(r.problema.getInicial()))).append(',');
+            } else {
+                sb.append(",,,");
+            }
+            sb.append(r.motor != null ? campoCsv(r.motor) : "").append(',');
+            sb.append(r.desenlace).append(',');
+            sb.append(r.getMovimientos()).append(',');
+            for (int i = 0; i < r.camino.length; i++) {
+                if (i > 0)
+                    sb.append(' ');
+                sb.append(estadoCsv(r.camino[i]));
+            }
+            sb.append(',');
+            EstadisticasBusqueda e = r.estadisticas;
+            if (e != null) {
+                double b = e.getFactorRamificacion();
+                sb.append(e.getExpandidos()).append(',')
+                        .append(e.getGenerados()).append(',')
+                        .append(e.getValidos()).append(',')
+                        .append(e.getDuplicados()).append(',')
+                        .append(e.getReaperturas()).append(',')
+                        .append(e.getPicoAbiertos()).append(',')
+                        .append(e.getCerrados()).append(',')
+                        .append(Double.isNaN(b) ? "" : String.format(Locale.ROOT, "%.4f", b)).append(',')
+                        .append(r.cpuNs).append(',')
+                        .append(r.bytesAsignados).append(',');
+            } else {
+                sb.append(",,,,,,,,,,");
+            }
+            sb.append(r.tiempoNs).append(',');
+            sb.append(r.cache != null ? r.cache.toString() : "").append(',');
+            if (r.error != null)
+                sb.append(campoCsv(r.error));
+        }
+    };
+
+    /** Primera línea de la salida, o null si el formato no tiene. */
+    abstract String encabezado();
+
+    abstract void escribir(ResultadoInstancia r, StringBuilder sb);
+
+    private static void estadoJson(int codigo, StringBuilder sb) {
+        sb.append('[').append(EstadoCodificado.misioneros(codigo))
+                .append(',').append(EstadoCodificado.canibales(codigo))
+                .append(',').append(EstadoCodificado.lado(codigo)).append(']');
+    }
+
+    /** m-c-lado, sin comas para no tener que citar el campo. */
+    private static String estadoCsv(int codigo) {
+        return EstadoCodificado.misioneros(codigo) + "-" + EstadoCodificado.canibales(codigo) + "-"
+                + EstadoCodificado.lado(codigo);
+    }
+
+    private static void cadenaJson(String s, StringBuilder sb) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20)
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else
+                        sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static String campoCsv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0)
+            return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
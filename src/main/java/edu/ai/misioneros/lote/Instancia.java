@@ -0,0 +1,63 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.modelo.Estado;
+import edu.ai.misioneros.modelo.Problema;
+
+/**
+ * Una línea de la entrada del lote: N, K, motor opcional (por defecto A*)
+ * y estado inicial opcional como misioneros, caníbales y lado de la lancha
+ * en la orilla izquierda. Los campos se separan por espacios o comas:
+ * <pre>
+ * 3 2
+ * 20,4,Bidireccional
+ * 5 3 IDA* 4 4 0
+ * </pre>
+ */
+final class Instancia {
+    static final String MOTOR_POR_DEFECTO = "A*";
+
+    private final int linea;
+    private final Problema problema;
+    private final String motor;
+
+    private Instancia(int linea, Problema problema, String motor) {
+        this.linea = linea;
+        this.problema = problema;
+        this.motor = motor;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la línea no es una instancia válida
+     */
+    static Instancia leer(int linea, String texto) {
+        String[] campos = texto.trim().split("[\\s,]+");
+        if (campos.length != 2 && campos.length != 3 && campos.length != 6)
+            throw new IllegalArgumentException("Se esperaba 'N K [motor [M C lado]]': " + texto.trim());
+        int n = entero(campos[0], "N");
+        int k = entero(campos[1], "K");
+        String motor = campos.length > 2 ? campos[2] : MOTOR_POR_DEFECTO;
+        if (!CatalogoMotores.nombres().contains(motor))
+            throw new IllegalArgumentException("Motor desconocido: " + motor + "; disponibles: "
+                    + CatalogoMotores.nombres());
+        Problema problema;
+        if (campos.length == 6) {
+            Estado inicial = new Estado(entero(campos[3], "M"), entero(campos[4], "C"), entero(campos[5], "lado"), n);
+            problema = new Problema(n, k, inicial);
+        } else {
+            problema = new Problema(n, k);
+        }
+        return new Instancia(linea, problema, motor);
+    }
+
+    private static int entero(String campo, String nombre) {
+        try {
+            return Integer.parseInt(campo);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nombre + " no es un entero: " + campo);
+        }
+    }
+
+    int getLinea() { return linea; }
+    Problema getProblema() { return problema; }
+    String getMotor() { return motor; }
+}
@@ -0,0 +1,312 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.busqueda.AlmacenTablas;
+import edu.ai.misioneros.busqueda.CacheSoluciones;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resuelve instancias por lotes desde la línea de comandos, sin interfaz:
+ * no carga ninguna clase de JavaFX, así que sirve en CI y en servidores sin
+ * pantalla.
+ * <pre>
+ * java -cp misioneros-canibales-astar-1.0.0.jar edu.ai.misioneros.lote.ResolverLote \
+ *      [--entrada archivo] [--salida archivo] [--formato jsonl|csv] [--hilos n] [--plazo ms] [--cache n]
+ *      [--tablas directorio]
+ * </pre>
+ * Lee una instancia por línea (ver Instancia; se ignoran las líneas vacías
+ * y las que empiezan con #) de un archivo o de la entrada estándar, las
+ * resuelve en un pool de hilos y escribe una línea por instancia en el
+ * orden de la entrada, a medida que terminan. Como mucho hay 4 instancias
+ * por hilo en vuelo, así que la memoria no crece con el tamaño del lote.
+ * Cada hilo tiene sus propias instancias de los motores, todas detrás de
+ * una CacheSoluciones común: las instancias repetidas (también las que
+ * están en curso en otro hilo) se buscan una sola vez. Con más de un
+ * hilo, HDA* resuelve cada instancia con un solo trabajador. El código de
+ * salida es 0 si todas las líneas se pudieron resolver (con o sin
+ * solución), 1 si alguna dio error o venció su plazo y 2 si los argumentos
+ * son incorrectos.
+ */
+public final class ResolverLote {
+    private static final int EN_VUELO_POR_HILO = 4;
+    private static final int USO_INCORRECTO = 2;
+    private static final int ENTRADAS_CACHE = 1024;
+
+    private final int hilos;
+    private final long plazoMs;
+    private final FormatoSalida formato;
+    private final CacheSoluciones cache; // null: sin caché
+    private final ThreadLocal<Map<String, MotorBusqueda>> motores = ThreadLocal.withInitial(HashMap::new);
+
+    private ResolverLote(int hilos, long plazoMs, FormatoSalida formato, int entradasCache) {
+        this.hilos = hilos;
+        this.plazoMs = plazoMs;
+        this.formato = formato;
+        this.cache = entradasCache > 0 ? CacheSoluciones.porEntradas(entradasCache) : null;
+    }
+
+    public static void main(String[] args) {
+        System.exit(ejecutar(args, System.in, System.out, System.err));
+    }
+
+    /** main() sin System.exit: devuelve el código de salida. */
+    public static int ejecutar(String[] args, InputStream entradaEstandar, OutputStream salidaEstandar,
+                               PrintStream errores) {
+        String entrada = "-";
+        String salida = "-";
+        FormatoSalida formato = FormatoSalida.JSONL;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long plazoMs = 0;
+        int entradasCache = ENTRADAS_CACHE;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--entrada":
+                        entrada = valor(args, ++i, a);
+                        break;
+                    case "--salida":
+                        salida = valor(args, ++i, a);
+                        break;
+                    case "--formato":
+                        formato = FormatoSalida.valueOf(valor(args, ++i, a).toUpperCase(Locale.ROOT));
+                        break;
+                    case "--hilos":
+                        hilos = Integer.parseInt(valor(args, ++i, a));
+                        if (hilos < 1)
+                            throw new IllegalArgumentException("--hilos debe ser >= 1");
+                        break;
+                    case "--plazo":
+                        plazoMs = Long.parseLong(valor(args, ++i, a));
+                        break;
+                    case "--cache":
+                        entradasCache = Integer.parseInt(valor(args, ++i, a));
+                        break;
+                    case "--tablas":
+                        AlmacenTablas.setDirectorio(Paths.get(valor(args, ++i, a)));
+                        break;
+                    case "--ayuda":
+                        uso(errores);
+                        return 0;
+                    default:
+                        throw new IllegalArgumentException("Argumento desconocido: " + a);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            errores.println(e.getMessage());
+            uso(errores);
+            return USO_INCORRECTO;
+        }
+
+        ResolverLote lote = new ResolverLote(hilos, plazoMs, formato, entradasCache);
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                entrada.equals("-") ? entradaEstandar : Files.newInputStream(Paths.get(entrada)),
+                StandardCharsets.UTF_8));
+             Writer escritor = new BufferedWriter(new OutputStreamWriter(
+                     salida.equals("-") ? noCerrar(salidaEstandar) : Files.newOutputStream(Paths.get(salida)),
+                     StandardCharsets.UTF_8))) {
+            return lote.resolver(lector, escritor, errores);
+        } catch (IOException e) {
+            errores.println("Error de E/S: " + e.getMessage());
+            return USO_INCORRECTO;
+        }
+    }
+
+    private int resolver(BufferedReader lector, Writer escritor, PrintStream errores) throws IOException {
+        ExecutorService pool = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), fabricaHilos("lote"));
+        ScheduledExecutorService temporizador = plazoMs > 0
+                ? Executors.newSingleThreadScheduledExecutor(fabricaHilos("lote-plazo"))
+                : null;
+        int[] cuenta = new int[ResultadoInstancia.Desenlace.values().length];
+        long inicio = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
+        try {
+            String encabezado = formato.encabezado();
+            if (encabezado != null) {
+                escritor.write(encabezado);
+                escritor.write('\n');
+            }
+            ArrayDeque<Future<ResultadoInstancia>> enVuelo = new ArrayDeque<>();
+            String texto;
+            int linea = 0;
+            while ((texto = lector.readLine()) != null) {
+                linea++;
+                String t = texto.trim();
+                if (t.isEmpty() || t.startsWith("#"))
+                    continue;
+                Future<ResultadoInstancia> futuro;
+                try {
+                    Instancia instancia = Instancia.leer(linea, t);
+                    futuro = pool.submit(() -> resolverInstancia(instancia, temporizador));
+                } catch (IllegalArgumentException e) {
+                    futuro = CompletableFuture.completedFuture(ResultadoInstancia.error(linea, null, e));
+                }
+                enVuelo.add(futuro);
+                while (enVuelo.size() >= hilos * EN_VUELO_POR_HILO)
+                    escribir(obtener(enVuelo.poll()), escritor, sb, cuenta);
+            }
+            while (!enVuelo.isEmpty())
+                escribir(obtener(enVuelo.poll()), escritor, sb, cuenta);
+        } finally {
+            pool.shutdownNow();
+            if (temporizador != null)
+                temporizador.shutdownNow();
+        }
+
+        int total = 0;
+        for (int c : cuenta)
+            total += c;
+        errores.printf(Locale.ROOT, "%d instancias en %.1f ms: %d resueltas, %d sin solución, %d con plazo vencido,"
+                        + " %d con error%n", total, (System.nanoTime() - inicio) / 1_000_000.0,
+                cuenta[ResultadoInstancia.Desenlace.RESUELTO.ordinal()],
+                cuenta[ResultadoInstancia.Desenlace.SIN_SOLUCION.ordinal()],
+                cuenta[ResultadoInstancia.Desenlace.PLAZO_VENCIDO.ordinal()],
+                cuenta[ResultadoInstancia.Desenlace.ERROR.ordinal()]);
+        if (cache != null)
+            errores.println(cache);
+        boolean fallos = cuenta[ResultadoInstancia.Desenlace.ERROR.ordinal()] > 0
+                || cuenta[ResultadoInstancia.Desenlace.PLAZO_VENCIDO.ordinal()] > 0;
+        return fallos ? 1 : 0;
+    }
+
+    /** Corre en un hilo del pool, con los motores de ese hilo. */
+    private ResultadoInstancia resolverInstancia(Instancia instancia, ScheduledExecutorService temporizador) {
+        OpcionesBusqueda opciones = new OpcionesBusqueda();
+        opciones.setModoRetencion(ModoRetencion.SOLO_CAMINO);
+        ScheduledFuture<?> alarma = null;
+        if (temporizador != null) {
+            TokenCancelacion token = new TokenCancelacion();
+            opciones.setTokenCancelacion(token);
+            alarma = temporizador.schedule(token::cancelar, plazoMs, TimeUnit.MILLISECONDS);
+        }
+        // Medir la consulta: si la responde la caché, es lo que costó esta línea
+        EstadisticasBusqueda consulta = new EstadisticasBusqueda();
+        consulta.iniciarMedicion();
+        long inicio = System.nanoTime();
+        try {
+            MotorBusqueda motor = motores.get().computeIfAbsent(instancia.getMotor(), this::crearMotor);
+            ResultadoBusqueda r;
+            CacheSoluciones.Origen origen = null;
+            if (cache != null) {
+                CacheSoluciones.Consulta c = cache.consultar(motor, instancia.getProblema(), opciones);
+                r = c.getResultado();
+                origen = c.getOrigen();
+            } else {
+                r = motor.resolver(instancia.getProblema(), opciones);
+            }
+            long tiempoNs = System.nanoTime() - inicio;
+            consulta.terminarMedicion();
+            return ResultadoInstancia.terminado(instancia, r, origen, tiempoNs, consulta);
+        } catch (CancellationException e) {
+            return ResultadoInstancia.plazoVencido(instancia, System.nanoTime() - inicio);
+        } catch (RuntimeException | StackOverflowError | OutOfMemoryError e) {
+            return ResultadoInstancia.error(instancia.getLinea(), instancia, e);
+        } finally {
+            if (alarma != null)
+                alarma.cancel(false);
+        }
+    }
+
+    /**
+     * Con varios hilos de lote ya se usan todos los procesadores: cada HDA*
+     * corre entonces con un solo trabajador. Con uno, usa todos.
+     */
+    private MotorBusqueda crearMotor(String nombre) {
+        return CatalogoMotores.crear(nombre, hilos > 1 ? 1 : Runtime.getRuntime().availableProcessors());
+    }
+
+    private void escribir(ResultadoInstancia r, Writer escritor, StringBuilder sb, int[] cuenta) throws IOException {
+        cuenta[r.desenlace.ordinal()]++;
+        sb.setLength(0);
+        formato.escribir(r, sb);
+        sb.append('\n');
+        escritor.append(sb);
+        // Una línea por instancia en cuanto está lista
+        escritor.flush();
+    }
+
+    private static ResultadoInstancia obtener(Future<ResultadoInstancia> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            // resolverInstancia captura lo que lanza el motor
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido", e);
+        }
+    }
+
+    private static ThreadFactory fabricaHilos(String prefijo) {
+        AtomicInteger siguiente = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r, prefijo + "-" + siguiente.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static String valor(String[] args, int i, String opcion) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("Falta el valor de " + opcion);
+        return args[i];
+    }
+
+    /** La salida estándar no se cierra al terminar el lote. */
+    private static OutputStream noCerrar(OutputStream salida) {
+        return new java.io.FilterOutputStream(salida) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private static void uso(PrintStream errores) {
+        errores.println("Uso: ResolverLote [--entrada archivo|-] [--salida archivo|-] [--formato jsonl|csv]"
+                + " [--hilos n] [--plazo ms] [--cache n] [--tablas directorio]");
+        errores.println("--cache: resultados que se recuerdan (0 = sin caché; por defecto " + ENTRADAS_CACHE + ")");
+        errores.println("--tablas: directorio donde se guardan y reutilizan las tablas precalculadas");
+        errores.println("Cada línea de entrada: N K [motor [M C lado]]; motores: " + CatalogoMotores.nombres());
+    }
+}
@@ -0,0 +1,84 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.busqueda.CacheSoluciones;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
+import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.List;
+
+/**
+ * Lo que se escribe de cada instancia del lote: la instancia, cómo terminó,
+ * el camino como códigos de estado y las estadísticas del motor.
+ * Si el resultado salió de la caché sin buscar, los contadores son los de
+ * la búsqueda original pero el tiempo, la CPU y la memoria son los de esta
+ * consulta.
+ */
+final class ResultadoInstancia {
+    enum Desenlace { RESUELTO, SIN_SOLUCION, PLAZO_VENCIDO, ERROR }
+
+    final int linea;
+    final Problema problema; // null si la línea no se pudo leer
+    final String motor;
+    final Desenlace desenlace;
+    final int[] camino;
+    final EstadisticasBusqueda estadisticas; // null si no terminó
+    final long tiempoNs;
+    final long cpuNs;          // -1 si no se midió
+    final long bytesAsignados; // -1 si no se midió
+    final CacheSoluciones.Origen cache; // null: sin caché o no terminó
+    final String error;
+
+    private ResultadoInstancia(int linea, Problema problema, String motor, Desenlace desenlace, int[] camino,
+                               EstadisticasBusqueda estadisticas, long tiempoNs, long cpuNs, long bytesAsignados,
+                               CacheSoluciones.Origen cache, String error) {
+        this.linea = linea;
+        this.problema = problema;
+        this.motor = motor;
+        this.desenlace = desenlace;
+        this.camino = camino;
+        this.estadisticas = estadisticas;
+        this.tiempoNs = tiempoNs;
+        this.cpuNs = cpuNs;
+        this.bytesAsignados = bytesAsignados;
+        this.cache = cache;
+        this.error = error;
+    }
+
+    /**
+     * @param cache    de dónde salió el resultado; null si no hay caché
+     * @param consulta lo medido alrededor de la consulta (tiempo en tiempoNs),
+     *                 que se informa en lugar de lo del motor si no se buscó
+     */
+    static ResultadoInstancia terminado(Instancia instancia, ResultadoBusqueda r, CacheSoluciones.Origen cache,
+                                        long tiempoNs, EstadisticasBusqueda consulta) {
+        List<Nodo> nodos = r.getCaminoSolucion();
+        int[] camino = new int[nodos.size()];
+        for (int i = 0; i < camino.length; i++)
+            camino[i] = nodos.get(i).getCodigo();
+        boolean buscado = cache == null || cache == CacheSoluciones.Origen.FALLO;
+        EstadisticasBusqueda medida = buscado ? r.getEstadisticas() : consulta;
+        return new ResultadoInstancia(instancia.getLinea(), instancia.getProblema(), instancia.getMotor(),
+                r.getLongitudSolucion() > 0 ? Desenlace.RESUELTO : Desenlace.SIN_SOLUCION, camino,
+                r.getEstadisticas(), buscado ? r.getTiempoNs() : tiempoNs, medida.getTiempoCpuNs(),
+                medida.getBytesAsignados(), cache, null);
+    }
+
+    static ResultadoInstancia plazoVencido(Instancia instancia, long tiempoNs) {
+        return new ResultadoInstancia(instancia.getLinea(), instancia.getProblema(), instancia.getMotor(),
+                Desenlace.PLAZO_VENCIDO, new int[0], null, tiempoNs, -1, -1, null, null);
+    }
+
+    static ResultadoInstancia error(int linea, Instancia instancia, Throwable error) {
+        String mensaje = error.getMessage() != null ? error.getMessage() : error.toString();
+        return new ResultadoInstancia(linea, instancia != null ? instancia.getProblema() : null,
+                instancia != null ? instancia.getMotor() : null, Desenlace.ERROR, new int[0], null, 0, -1, -1, null,
+                mensaje);
+    }
+
+    /** Movimientos de la solución; -1 si no hay. */
+    int getMovimientos() {
+        return camino.length - 1;
+    }
+}
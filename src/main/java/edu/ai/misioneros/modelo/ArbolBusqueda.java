@@ -0,0 +1,24 @@
+package edu.ai.misioneros.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista en objetos Nodo de una búsqueda: raíz, camino solución y todos los
+ * nodos generados. Los algoritmos la construyen solo cuando alguien la pide.
+ */
+public class ArbolBusqueda {
+    private final Nodo raiz;
+    private final List<Nodo> caminoSolucion;
+    private final List<Nodo> todosLosNodosGenerados;
+
+    public ArbolBusqueda(Nodo raiz, List<Nodo> caminoSolucion, List<Nodo> todosLosNodosGenerados) {
+        this.raiz = raiz;
+        this.caminoSolucion = caminoSolucion != null ? caminoSolucion : new ArrayList<>();
+        this.todosLosNodosGenerados = todosLosNodosGenerados != null ? todosLosNodosGenerados : new ArrayList<>();
+    }
+
+    public Nodo getRaiz() { return raiz; }
+    public List<Nodo> getCaminoSolucion() { return caminoSolucion; }
+    public List<Nodo> getTodosLosNodosGenerados() { return todosLosNodosGenerados; }
+}
@@ -0,0 +1,241 @@
+package edu.ai.misioneros.modelo;
+
+import edu.ai.misioneros.diagnostico.EventoBusqueda;
+import edu.ai.misioneros.diagnostico.EventoHitoAbiertos;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Contadores de una búsqueda, que el motor va llenando mientras busca:
+ * nodos expandidos (también por profundidad), generados, válidos,
+ * duplicados descartados, reaperturas, pico y tamaño final de ABIERTOS y
+ * tamaño de CERRADOS. Con iniciarMedicion()/terminarMedicion() registra
+ * además el tiempo de CPU y los bytes asignados por el hilo que busca,
+ * según ThreadMXBean (-1 si la JVM no lo soporta). La construcción perezosa
+ * de los Nodo del resultado no se cuenta.
+ * Si se crea con el nombre del motor y el problema, también emite eventos
+ * JFR: un EventoBusqueda entre iniciarMedicion() y terminarMedicion() y un
+ * EventoHitoAbiertos cada vez que ABIERTOS duplica su tamaño.
+ * No es seguro entre hilos: cada hilo usa el suyo y se juntan con sumar().
+ */
+public class EstadisticasBusqueda {
+    private static final ThreadMXBean HILOS = ManagementFactory.getThreadMXBean();
+    public static final int PRIMER_HITO_ABIERTOS = 64;
+
+    // Para los eventos JFR; motor null: sin eventos
+    private final String motor;
+    private final int n;
+    private final int capacidad;
+    private EventoBusqueda evento;
+    private int siguienteHito = PRIMER_HITO_ABIERTOS;
+
+    private long expandidos;
+    private long generados;
+    private long validos;
+    private long duplicados;
+    private long reaperturas;
+    private int picoAbiertos;
+    private int abiertos;
+    private int cerrados;
+    private long[] expandidosPorProfundidad = new long[16];
+    private int profundidadMaxima = -1; // mayor profundidad expandida
+    private int profundidadSolucion = -1;
+
+    private long tiempoCpuNs = -1;
+    private long bytesAsignados = -1;
+    private long cpuInicio;
+    private long bytesInicio;
+
+    /** Sin eventos JFR, por ejemplo para los hilos de un motor paralelo. */
+    public EstadisticasBusqueda() {
+        this(null, null);
+    }
+
+    public EstadisticasBusqueda(String motor, Problema problema) {
+        this.motor = motor;
+        this.n = problema != null ? problema.getN() : 0;
+        this.capacidad = problema != null ? problema.getCapacidad() : 0;
+    }
+
+    public void expandido(int profundidad) {
+        expandidos++;
+        if (profundidad >= expandidosPorProfundidad.length)
+            expandidosPorProfundidad = Arrays.copyOf(expandidosPorProfundidad,
+                    Math.max(profundidad + 1, expandidosPorProfundidad.length << 1));
+        expandidosPorProfundidad[profundidad]++;
+        if (profundidad > profundidadMaxima)
+            profundidadMaxima = profundidad;
+    }
+
+    public void generados(int n) {
+        generados += n;
+    }
+
+    public void valido() {
+        validos++;
+    }
+
+    public void duplicado() {
+        duplicados++;
+    }
+
+    public void reapertura() {
+        reaperturas++;
+    }
+
+    /** Tamaño actual de ABIERTOS (o de la frontera del motor); guarda el pico. */
+    public void abiertos(int tamano) {
+        abiertos = tamano;
+        if (tamano > picoAbiertos)
+            picoAbiertos = tamano;
+        if (tamano >= siguienteHito)
+            hito(tamano);
+    }
+
+    private void hito(int tamano) {
+        while (siguienteHito > 0 && siguienteHito <= tamano)
+            siguienteHito <<= 1;
+        if (siguienteHito <= 0)
+            siguienteHito = Integer.MAX_VALUE;
+        if (motor != null)
+            EventoHitoAbiertos.registrar(motor, n, capacidad, tamano, expandidos);
+    }
+
+    public void setCerrados(int cerrados) {
+        this.cerrados = cerrados;
+    }
+
+    /** Movimientos del camino solución; -1 si no hay. */
+    public void setProfundidadSolucion(int profundidadSolucion) {
+        this.profundidadSolucion = profundidadSolucion;
+    }
+
+    public void iniciarMedicion() {
+        if (motor != null) {
+            evento = new EventoBusqueda(motor, n, capacidad);
+            evento.begin();
+        }
+        cpuInicio = cpuHilo();
+        bytesInicio = bytesHilo();
+    }
+
+    /**
+     * Suma a lo ya medido (por ejemplo, lo sumado de otros hilos) lo que
+     * usó este hilo desde iniciarMedicion(), y registra el EventoBusqueda:
+     * conviene llamarlo con los contadores ya completos.
+     */
+    public void terminarMedicion() {
+        long cpu = cpuHilo();
+        long bytes = bytesHilo();
+        tiempoCpuNs = sumarMedida(tiempoCpuNs, cpu >= 0 && cpuInicio >= 0 ? cpu - cpuInicio : -1);
+        bytesAsignados = sumarMedida(bytesAsignados, bytes >= 0 && bytesInicio >= 0 ? bytes - bytesInicio : -1);
+        if (evento != null) {
+            evento.terminar(expandidos, generados, picoAbiertos, cerrados, profundidadSolucion, bytesAsignados);
+            evento = null;
+        }
+    }
+
+    /**
+     * Suma los contadores de otro hilo de la misma búsqueda. Los picos de
+     * ABIERTOS se suman, así que el resultado es una cota superior del pico
+     * conjunto.
+     */
+    public void sumar(EstadisticasBusqueda o) {
+        expandidos += o.expandidos;
+        generados += o.generados;
+        validos += o.validos;
+        duplicados += o.duplicados;
+        reaperturas += o.reaperturas;
+        picoAbiertos += o.picoAbiertos;
+        abiertos += o.abiertos;
+        cerrados += o.cerrados;
+        if (o.profundidadMaxima >= expandidosPorProfundidad.length)
+            expandidosPorProfundidad = Arrays.copyOf(expandidosPorProfundidad, o.profundidadMaxima + 1);
+        for (int d = 0; d <= o.profundidadMaxima; d++)
+            expandidosPorProfundidad[d] += o.expandidosPorProfundidad[d];
+        profundidadMaxima = Math.max(profundidadMaxima, o.profundidadMaxima);
+        tiempoCpuNs = sumarMedida(tiempoCpuNs, o.tiempoCpuNs);
+        bytesAsignados = sumarMedida(bytesAsignados, o.bytesAsignados);
+    }
+
+    private static long sumarMedida(long a, long b) {
+        if (a < 0)
+            return b;
+        return b < 0 ? a : a + b;
+    }
+
+    public long getExpandidos() { return expandidos; }
+    public long getGenerados() { return generados; }
+    public long getValidos() { return validos; }
+    public long getDuplicados() { return duplicados; }
+    public long getReaperturas() { return reaperturas; }
+    public int getPicoAbiertos() { return picoAbiertos; }
+    public int getAbiertos() { return abiertos; }
+    public int getCerrados() { return cerrados; }
+    public int getProfundidadSolucion() { return profundidadSolucion; }
+    /** Nanosegundos de CPU del hilo que buscó, o -1 si no se midió. */
+    public long getTiempoCpuNs() { return tiempoCpuNs; }
+    /** Bytes asignados por el hilo que buscó, o -1 si no se midió. */
+    public long getBytesAsignados() { return bytesAsignados; }
+
+    /** Nodos expandidos en cada profundidad (g), desde 0 hasta la mayor expandida. */
+    public long[] getExpandidosPorProfundidad() {
+        return Arrays.copyOf(expandidosPorProfundidad, profundidadMaxima + 1);
+    }
+
+    /**
+     * Factor de ramificación efectivo b*: el de un árbol uniforme de la
+     * profundidad de la solución con tantos nodos como los generados
+     * (generados = b* + b*^2 + ... + b*^d). NaN si no hay solución.
+     */
+    public double getFactorRamificacion() {
+        int d = profundidadSolucion;
+        if (d <= 0 || generados <= 0)
+            return Double.NaN;
+        double bajo = 0;
+        double alto = Math.max(1, generados);
+        for (int i = 0; i < 100; i++) {
+            double b = (bajo + alto) / 2;
+            if (arbolUniforme(b, d) < generados)
+                bajo = b;
+            else
+                alto = b;
+        }
+        return (bajo + alto) / 2;
+    }
+
+    private static double arbolUniforme(double b, int d) {
+        double suma = 0;
+        double potencia = 1;
+        for (int i = 1; i <= d; i++) {
+            potencia *= b;
+            suma += potencia;
+            if (suma > Long.MAX_VALUE)
+                break;
+        }
+        return suma;
+    }
+
+    private static long cpuHilo() {
+        try {
+            return HILOS.isCurrentThreadCpuTimeSupported() ? HILOS.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static long bytesHilo() {
+        if (!(HILOS instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) HILOS;
+        try {
+            return hilos.isThreadAllocatedMemorySupported()
+                    ? hilos.getThreadAllocatedBytes(Thread.currentThread().getId())
+                    : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+}
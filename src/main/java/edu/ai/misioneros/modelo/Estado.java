@@ -5,34 +5,42 @@ import java.util.Objects;
 /**
  * Representa un estado del problema: (misionerosIzquierda, canibalesIzquierda, lanchaLado)
  * L: 0 = izquierda, 1 = derecha
+ * total: número de misioneros (y de caníbales) del problema
  */
 public class Estado {
     private final int misionerosIzquierda;
     private final int canibalesIzquierda;
     private final int lanchaLado; // 0 izquierda, 1 derecha
+    private final int total;
 
     public Estado(int misionerosIzquierda, int canibalesIzquierda, int lanchaLado) {
+        this(misionerosIzquierda, canibalesIzquierda, lanchaLado, 3);
+    }
+
+    public Estado(int misionerosIzquierda, int canibalesIzquierda, int lanchaLado, int total) {
         this.misionerosIzquierda = misionerosIzquierda;
         this.canibalesIzquierda = canibalesIzquierda;
         this.lanchaLado = lanchaLado;
+        this.total = total;
     }
 
     public int getMisionerosIzquierda() { return misionerosIzquierda; }
     public int getCanibalesIzquierda() { return canibalesIzquierda; }
     public int getLanchaLado() { return lanchaLado; }
+    public int getTotal() { return total; }
 
-    public int getMisionerosDerecha() { return 3 - misionerosIzquierda; }
-    public int getCanibalesDerecha() { return 3 - canibalesIzquierda; }
+    public int getMisionerosDerecha() { return total - misionerosIzquierda; }
+    public int getCanibalesDerecha() { return total - canibalesIzquierda; }
 
     public boolean esValido() {
         int mL = misionerosIzquierda;
         int cL = canibalesIzquierda;
-        int mR = 3 - mL;
-        int cR = 3 - cL;
+        int mR = total - mL;
+        int cR = total - cL;
 
         boolean izqOk = (mL == 0) || (mL >= cL);
         boolean derOk = (mR == 0) || (mR >= cR);
-        return mL >= 0 && mL <= 3 && cL >= 0 && cL <= 3 && (lanchaLado == 0 || lanchaLado == 1) && izqOk && derOk;
+        return mL >= 0 && mL <= total && cL >= 0 && cL <= total && (lanchaLado == 0 || lanchaLado == 1) && izqOk && derOk;
     }
 
     public boolean esObjetivo() {
@@ -44,12 +52,12 @@ public class Estado {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Estado estado = (Estado) o;
-        return misionerosIzquierda == estado.misionerosIzquierda && canibalesIzquierda == estado.canibalesIzquierda && lanchaLado == estado.lanchaLado;
+        return misionerosIzquierda == estado.misionerosIzquierda && canibalesIzquierda == estado.canibalesIzquierda && lanchaLado == estado.lanchaLado && total == estado.total;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(misionerosIzquierda, canibalesIzquierda, lanchaLado);
+        return Objects.hash(misionerosIzquierda, canibalesIzquierda, lanchaLado, total);
     }
 
     @Override
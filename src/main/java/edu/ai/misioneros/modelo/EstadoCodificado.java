@@ -0,0 +1,73 @@
+package edu.ai.misioneros.modelo;
+
+/**
+ * Representación primitiva de un estado empaquetado en un int, para el camino
+ * caliente de los algoritmos (sin crear objetos Estado).
+ * Bits: [31..16] misioneros izquierda, [15..1] caníbales izquierda, [0] lado de la lancha.
+ * Solo se materializa un Estado en la frontera con la vista.
+ */
+public final class EstadoCodificado {
+    /** Máximo N representable (15 bits por cantidad). */
+    public static final int MAX_N = 0x7FFF;
+    /** Código del estado objetivo (0, 0, 1). */
+    public static final int OBJETIVO = 1;
+
+    private EstadoCodificado() {
+    }
+
+    public static int codificar(int misionerosIzquierda, int canibalesIzquierda, int lanchaLado) {
+        return (misionerosIzquierda << 16) | (canibalesIzquierda << 1) | lanchaLado;
+    }
+
+    public static int codificar(Estado e) {
+        return codificar(e.getMisionerosIzquierda(), e.getCanibalesIzquierda(), e.getLanchaLado());
+    }
+
+    public static int misioneros(int codigo) { return codigo >>> 16; }
+    public static int canibales(int codigo) { return (codigo >>> 1) & MAX_N; }
+    public static int lado(int codigo) { return codigo & 1; }
+
+    public static Estado decodificar(int codigo, int n) {
+        return new Estado(misioneros(codigo), canibales(codigo), lado(codigo), n);
+    }
+
+    /**
+     * Misma regla que Estado.esValido(): en cada orilla los misioneros no
+     * pueden ser superados por los caníbales (salvo que no haya misioneros).
+     * Las cantidades siempre están en [0, n] porque los sucesores se generan
+     * dentro de ese rango.
+     */
+    public static boolean esValido(int codigo, int n) {
+        int mL = misioneros(codigo);
+        int cL = canibales(codigo);
+        if (mL > n || cL > n)
+            return false;
+        int mR = n - mL;
+        int cR = n - cL;
+        return (mL == 0 || mL >= cL) && (mR == 0 || mR >= cR);
+    }
+
+    public static boolean esObjetivo(int codigo) {
+        return codigo == OBJETIVO;
+    }
+
+    /** Número de estados distintos (válidos o no) para un problema de tamaño n. */
+    public static long numeroEstados(int n) {
+        return (long) (n + 1) * (n + 1) * 2;
+    }
+
+    /** Índice denso en [0, numeroEstados(n)) para estructuras indexadas por estado. */
+    public static int indice(int codigo, int n) {
+        return (misioneros(codigo) * (n + 1) + canibales(codigo)) * 2 + lado(codigo);
+    }
+
+    public static int desdeIndice(int indice, int n) {
+        int lado = indice & 1;
+        int resto = indice >>> 1;
+        return codificar(resto / (n + 1), resto % (n + 1), lado);
+    }
+
+    public static String toString(int codigo) {
+        return "(" + misioneros(codigo) + "," + canibales(codigo) + "," + lado(codigo) + ")";
+    }
+}
@@ -0,0 +1,13 @@
+package edu.ai.misioneros.modelo;
+
+/**
+ * Qué parte de la búsqueda conserva el resultado.
+ */
+public enum ModoRetencion {
+    /** Todo el árbol generado, incluidos los nodos inválidos (necesario para la vista). */
+    ARBOL_COMPLETO,
+    /** Solo el camino solución y las estadísticas. */
+    SOLO_CAMINO,
+    /** Solo las estadísticas (incluida la longitud de la solución). */
+    SOLO_ESTADISTICAS
+}
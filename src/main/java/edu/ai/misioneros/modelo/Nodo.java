@@ -5,9 +5,12 @@ import java.util.List;
 
 /**
  * Nodo del árbol de búsqueda.
+ * Guarda el estado codificado (ver EstadoCodificado); el objeto Estado solo se
+ * crea cuando la vista lo pide con getEstado().
  */
 public class Nodo {
-    private final Estado estado;
+    private final int codigo;
+    private final int total;  // N del problema, para materializar el Estado
     private final Nodo padre;
     private final int nivel; // g
     private final int h;     // heurística
@@ -16,7 +19,12 @@ public class Nodo {
     private final List<Nodo> hijos = new ArrayList<>();
 
     public Nodo(Estado estado, Nodo padre, int nivel, int h, int fh, String operador) {
-        this.estado = estado;
+        this(EstadoCodificado.codificar(estado), estado.getTotal(), padre, nivel, h, fh, operador);
+    }
+
+    public Nodo(int codigo, int total, Nodo padre, int nivel, int h, int fh, String operador) {
+        this.codigo = codigo;
+        this.total = total;
         this.padre = padre;
         this.nivel = nivel;
         this.h = h;
@@ -24,7 +32,8 @@ public class Nodo {
         this.operador = operador;
     }
 
-    public Estado getEstado() { return estado; }
+    public Estado getEstado() { return EstadoCodificado.decodificar(codigo, total); }
+    public int getCodigo() { return codigo; }
     public Nodo getPadre() { return padre; }
     public int getNivel() { return nivel; }
     public int getH() { return h; }
@@ -33,20 +42,14 @@ public class Nodo {
      * g voraz: número de misioneros + caníbales en el lado izquierdo
      */
     public int getGreedyG() {
-        int mL = estado.getMisionerosIzquierda();
-        int cL = estado.getCanibalesIzquierda();
-        return mL + cL;
+        return EstadoCodificado.misioneros(codigo) + EstadoCodificado.canibales(codigo);
     }
 
     /**
      * n voraz: número de misioneros + caníbales en el lado derecho
      */
     public int getGreedyN() {
-        int mL = estado.getMisionerosIzquierda();
-        int cL = estado.getCanibalesIzquierda();
-        int mR = 3 - mL;
-        int cR = 3 - cL;
-        return mR + cR;
+        return 2 * total - getGreedyG();
     }
 
     /**
@@ -60,6 +63,3 @@ public class Nodo {
 
     public void agregarHijo(Nodo hijo) { hijos.add(hijo); }
 }
-
-
-
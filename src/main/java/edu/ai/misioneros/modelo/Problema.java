@@ -0,0 +1,109 @@
+package edu.ai.misioneros.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parámetros de una instancia del problema: N misioneros, N caníbales,
+ * capacidad K de la lancha y estado inicial.
+ * Los movimientos posibles se generan una sola vez a partir de K: toda carga
+ * (m, c) con 1 <= m + c <= K en la que los caníbales no superan a los
+ * misioneros dentro de la lancha (salvo que no vaya ningún misionero).
+ */
+public class Problema {
+    private final int n;
+    private final int capacidad;
+    private final Estado inicial;
+
+    // Cargas de la lancha, en orden de generación
+    private final int[] movMisioneros;
+    private final int[] movCanibales;
+    // Descripciones precalculadas: [0] hacia la derecha, [1] hacia la izquierda
+    private final String[][] descripciones;
+
+    public Problema(int n, int capacidad) {
+        this(n, capacidad, new Estado(n, n, 0, n));
+    }
+
+    public Problema(int n, int capacidad, Estado inicial) {
+        if (n < 1 || n > EstadoCodificado.MAX_N)
+            throw new IllegalArgumentException("N debe estar en [1, " + EstadoCodificado.MAX_N + "]: " + n);
+        if (capacidad < 1)
+            throw new IllegalArgumentException("La capacidad de la lancha debe ser >= 1: " + capacidad);
+        if (inicial == null || inicial.getTotal() != n || !inicial.esValido())
+            throw new IllegalArgumentException("Estado inicial inválido para N=" + n + ": " + inicial);
+        this.n = n;
+        this.capacidad = capacidad;
+        this.inicial = inicial;
+
+        List<int[]> cargas = new ArrayList<>();
+        // Solo misioneros
+        for (int m = 1; m <= capacidad; m++)
+            cargas.add(new int[] { m, 0 });
+        // Solo caníbales
+        for (int c = 1; c <= capacidad; c++)
+            cargas.add(new int[] { 0, c });
+        // Mixtos: misioneros >= caníbales dentro de la lancha
+        for (int m = 1; m <= capacidad; m++)
+            for (int c = 1; c <= m && m + c <= capacidad; c++)
+                cargas.add(new int[] { m, c });
+
+        movMisioneros = new int[cargas.size()];
+        movCanibales = new int[cargas.size()];
+        descripciones = new String[2][cargas.size()];
+        for (int i = 0; i < cargas.size(); i++) {
+            movMisioneros[i] = cargas.get(i)[0];
+            movCanibales[i] = cargas.get(i)[1];
+            descripciones[0][i] = describir(movMisioneros[i], movCanibales[i], "derecha");
+            descripciones[1][i] = describir(movMisioneros[i], movCanibales[i], "izquierda");
+        }
+    }
+
+    /**
+     * Instancia clásica: 3 misioneros, 3 caníbales y lancha de 2 plazas.
+     */
+    public static Problema clasico() {
+        return new Problema(3, 2);
+    }
+
+    public int getN() { return n; }
+    public int getCapacidad() { return capacidad; }
+    public Estado getInicial() { return inicial; }
+
+    public int getNumeroMovimientos() { return movMisioneros.length; }
+    public int getMisionerosMovimiento(int i) { return movMisioneros[i]; }
+    public int getCanibalesMovimiento(int i) { return movCanibales[i]; }
+
+    /** Índice del movimiento que lleva m misioneros y c caníbales, o -1 si no existe. */
+    public int buscarMovimiento(int m, int c) {
+        for (int i = 0; i < movMisioneros.length; i++) {
+            if (movMisioneros[i] == m && movCanibales[i] == c)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Descripción del movimiento i cuando la lancha parte del lado indicado
+     * (0 izquierda -> derecha, 1 derecha -> izquierda).
+     */
+    public String getDescripcion(int i, int ladoLancha) {
+        return descripciones[ladoLancha][i];
+    }
+
+    private static String describir(int m, int c, String destino) {
+        StringBuilder sb = new StringBuilder("Mover ");
+        if (m > 0)
+            sb.append(m).append(m == 1 ? " misionero" : " misioneros");
+        if (m > 0 && c > 0)
+            sb.append(" y ");
+        if (c > 0)
+            sb.append(c).append(c == 1 ? " caníbal" : " caníbales");
+        return sb.append(" a la ").append(destino).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "N=" + n + ", K=" + capacidad + ", inicio=" + inicial;
+    }
+}
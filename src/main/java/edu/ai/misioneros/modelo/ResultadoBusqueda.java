@@ -1,45 +1,69 @@
 package edu.ai.misioneros.modelo;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Contiene el árbol completo (desde la raíz) y el camino solución.
+ * Según el ModoRetencion usado, el árbol o el camino pueden venir vacíos;
+ * getLongitudSolucion() siempre está disponible.
+ * El árbol puede entregarse como un Supplier: los Nodo se construyen la
+ * primera vez que se pide la raíz, el camino o la lista de nodos.
+ * Los contadores detallados y los recursos usados están en
+ * getEstadisticas().
  */
 public class ResultadoBusqueda {
-    private final Nodo raiz;
-    private final List<Nodo> caminoSolucion;
-    private final List<Nodo> todosLosNodosGenerados;
+    private Supplier<ArbolBusqueda> fuenteArbol;
+    private ArbolBusqueda arbol;
     private final int nodosExplorados;
     private final int nodosAbiertos;
     private final int nodosCerrados;
     private final long tiempoNs;
+    private final int duplicadosSuprimidos; // hijos descartados por estar ya en ABIERTOS/CERRADOS sin mejorar g
+    private final int reaperturas;          // estados cerrados que volvieron a ABIERTOS con menor g
+    private final int longitudSolucion;
+    private final EstadisticasBusqueda estadisticas;
 
-    public ResultadoBusqueda(Nodo raiz,
-                             List<Nodo> caminoSolucion,
-                             List<Nodo> todosLosNodosGenerados,
-                             int nodosExplorados,
-                             int nodosAbiertos,
-                             int nodosCerrados,
-                             long tiempoNs) {
-        this.raiz = raiz;
-        this.caminoSolucion = caminoSolucion != null ? caminoSolucion : new ArrayList<>();
-        this.todosLosNodosGenerados = todosLosNodosGenerados != null ? todosLosNodosGenerados : new ArrayList<>();
-        this.nodosExplorados = nodosExplorados;
-        this.nodosAbiertos = nodosAbiertos;
-        this.nodosCerrados = nodosCerrados;
+    /**
+     * Toma los contadores básicos de las estadísticas: explorados son los
+     * expandidos y abiertos el tamaño final de ABIERTOS.
+     *
+     * @param fuenteArbol construye la vista en Nodos cuando se pide; null si no se conservó nada
+     */
+    public ResultadoBusqueda(Supplier<ArbolBusqueda> fuenteArbol,
+                             EstadisticasBusqueda estadisticas,
+                             long tiempoNs,
+                             int longitudSolucion) {
+        this.fuenteArbol = fuenteArbol;
+        this.nodosExplorados = (int) Math.min(estadisticas.getExpandidos(), Integer.MAX_VALUE);
+        this.nodosAbiertos = estadisticas.getAbiertos();
+        this.nodosCerrados = estadisticas.getCerrados();
         this.tiempoNs = tiempoNs;
+        this.duplicadosSuprimidos = (int) Math.min(estadisticas.getDuplicados(), Integer.MAX_VALUE);
+        this.reaperturas = (int) Math.min(estadisticas.getReaperturas(), Integer.MAX_VALUE);
+        this.longitudSolucion = longitudSolucion;
+        this.estadisticas = estadisticas;
     }
 
-    public Nodo getRaiz() { return raiz; }
-    public List<Nodo> getCaminoSolucion() { return caminoSolucion; }
-    public List<Nodo> getTodosLosNodosGenerados() { return todosLosNodosGenerados; }
+    private synchronized ArbolBusqueda arbol() {
+        if (arbol == null) {
+            arbol = fuenteArbol != null ? fuenteArbol.get() : new ArbolBusqueda(null, null, null);
+            fuenteArbol = null;
+        }
+        return arbol;
+    }
+
+    public Nodo getRaiz() { return arbol().getRaiz(); }
+    public List<Nodo> getCaminoSolucion() { return arbol().getCaminoSolucion(); }
+    public List<Nodo> getTodosLosNodosGenerados() { return arbol().getTodosLosNodosGenerados(); }
     public int getNodosExplorados() { return nodosExplorados; }
     public int getNodosAbiertos() { return nodosAbiertos; }
     public int getNodosCerrados() { return nodosCerrados; }
     public long getTiempoMs() { return tiempoNs / 1_000_000; }
     public long getTiempoNs() { return tiempoNs; }
+    public int getDuplicadosSuprimidos() { return duplicadosSuprimidos; }
+    public int getReaperturas() { return reaperturas; }
+    /** Número de nodos del camino solución (0 si no hay solución), aunque el camino no se haya conservado. */
+    public int getLongitudSolucion() { return longitudSolucion; }
+    public EstadisticasBusqueda getEstadisticas() { return estadisticas; }
 }
-
-
-
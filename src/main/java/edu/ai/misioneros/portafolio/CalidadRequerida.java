@@ -0,0 +1,13 @@
+package edu.ai.misioneros.portafolio;
+
+/**
+ * Qué resultado da por terminada la ejecución de un portafolio.
+ */
+public enum CalidadRequerida {
+    /** El primer motor que encuentra una solución. */
+    PRIMERA_SOLUCION,
+    /** El primer motor cuya solución tiene la longitud óptima (comprobada con OraculoDistancias). */
+    PRIMERA_OPTIMA,
+    /** Esperar a todos los motores; no se cancela ninguno salvo por plazo. */
+    TODOS
+}
@@ -0,0 +1,49 @@
+package edu.ai.misioneros.portafolio;
+
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+/**
+ * Cómo terminó un motor dentro de un portafolio y cuánto tardó.
+ */
+public class EjecucionMotor {
+
+    public enum Estado {
+        /** Devolvió un resultado (con o sin solución). */
+        TERMINADO,
+        /** Se canceló porque otro motor ya cumplió la calidad pedida o por el llamador. */
+        CANCELADO,
+        /** Se canceló por vencer el plazo. */
+        PLAZO_VENCIDO,
+        /** Lanzó una excepción. */
+        FALLIDO
+    }
+
+    private final String nombre;
+    private final Estado estado;
+    private final ResultadoBusqueda resultado;
+    private final long tiempoNs;
+    private final Throwable error;
+
+    public EjecucionMotor(String nombre, Estado estado, ResultadoBusqueda resultado, long tiempoNs, Throwable error) {
+        this.nombre = nombre;
+        this.estado = estado;
+        this.resultado = resultado;
+        this.tiempoNs = tiempoNs;
+        this.error = error;
+    }
+
+    public String getNombre() { return nombre; }
+    public Estado getEstado() { return estado; }
+    /** Resultado del motor, o null si no terminó. */
+    public ResultadoBusqueda getResultado() { return resultado; }
+    /** Tiempo de pared desde que el motor empezó a ejecutarse. */
+    public long getTiempoNs() { return tiempoNs; }
+    public long getTiempoMs() { return tiempoNs / 1_000_000; }
+    /** Excepción del motor si estado es FALLIDO. */
+    public Throwable getError() { return error; }
+
+    @Override
+    public String toString() {
+        return nombre + ": " + estado + " en " + tiempoNs / 1_000_000.0 + " ms";
+    }
+}
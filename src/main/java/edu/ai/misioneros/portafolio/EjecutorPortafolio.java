@@ -0,0 +1,261 @@
+package edu.ai.misioneros.portafolio;
+
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.busqueda.OraculoDistancias;
+import edu.ai.misioneros.busqueda.OyenteBusqueda;
+import edu.ai.misioneros.busqueda.TokenCancelacion;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta varios motores sobre el mismo problema en un pool de hilos fijo y
+ * reutilizable, con un plazo común. En cuanto un motor devuelve un
+ * resultado que cumple la CalidadRequerida se cancelan los demás (mediante
+ * un TokenCancelacion hijo del de las opciones, si lo hay); al vencer el
+ * plazo se cancelan todos. Siempre se espera a que cada motor termine, de
+ * modo que los hilos quedan libres para la siguiente ejecución y se conoce
+ * el tiempo de cada uno.
+ * Con PRIMERA_OPTIMA la longitud óptima se calcula con OraculoDistancias en
+ * un hilo aparte mientras corren los motores; una solución solo gana si esa
+ * longitud se conoce antes del plazo o de la cancelación.
+ * Los motores reutilizan sus buffers, así que no se debe pasar la misma
+ * instancia dos veces ni usarla en dos portafolios a la vez.
+ */
+public class EjecutorPortafolio implements AutoCloseable {
+    /** Tareas que pueden esperar en cola cuando hay más motores que hilos. */
+    private static final int CAPACIDAD_COLA = 64;
+    /** Cada cuánto se revisan el plazo y el token mientras se espera al oráculo. */
+    private static final long INTERVALO_ESPERA_NS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final AtomicInteger SIGUIENTE_POOL = new AtomicInteger(1);
+    private static final AtomicInteger SIGUIENTE_ORACULO = new AtomicInteger(1);
+    // El BFS del oráculo no se puede cancelar; si vence el plazo sigue aquí y queda en la caché del oráculo
+    private static final ExecutorService ORACULO = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "portafolio-oraculo-" + SIGUIENTE_ORACULO.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ThreadPoolExecutor ejecutor;
+
+    /** Un hilo por procesador, y al menos dos. */
+    public EjecutorPortafolio() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public EjecutorPortafolio(int hilos) {
+        if (hilos < 1)
+            throw new IllegalArgumentException("Se necesita al menos un hilo: " + hilos);
+        int pool = SIGUIENTE_POOL.getAndIncrement();
+        AtomicInteger siguienteHilo = new AtomicInteger(1);
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "portafolio-" + pool + "-" + siguienteHilo.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDAD_COLA), fabrica);
+    }
+
+    /**
+     * Ejecuta los motores y devuelve cuando todos terminaron o fueron
+     * cancelados.
+     *
+     * @param plazoMs plazo común en milisegundos; 0 o negativo para no tener plazo
+     * @throws CancellationException si se interrumpe el hilo que llama
+     * @throws RejectedExecutionException si no caben todos los motores en el
+     *         pool y su cola, o el ejecutor está cerrado; los que llegaron a
+     *         entrar se cancelan y se esperan antes de lanzarla
+     */
+    public ResultadoPortafolio ejecutar(Problema problema,
+                                        OpcionesBusqueda opciones,
+                                        List<? extends MotorBusqueda> motores,
+                                        CalidadRequerida calidad,
+                                        long plazoMs) {
+        return ejecutar(problema, opciones, motores, null, calidad, plazoMs);
+    }
+
+    /**
+     * Igual que el anterior, pero cada motor publica sus eventos en su
+     * propio oyente.
+     *
+     * @param oyentes uno por motor, en el mismo orden (los null no reciben nada); null para ninguno
+     */
+    public ResultadoPortafolio ejecutar(Problema problema,
+                                        OpcionesBusqueda opciones,
+                                        List<? extends MotorBusqueda> motores,
+                                        List<? extends OyenteBusqueda> oyentes,
+                                        CalidadRequerida calidad,
+                                        long plazoMs) {
+        if (oyentes != null && oyentes.size() != motores.size())
+            throw new IllegalArgumentException("Se esperaba un oyente por motor: " + oyentes.size());
+        long inicio = System.nanoTime();
+        long limite = plazoMs > 0 ? inicio + TimeUnit.MILLISECONDS.toNanos(plazoMs) : Long.MAX_VALUE;
+
+        TokenCancelacion token = new TokenCancelacion(opciones.getTokenCancelacion());
+        AtomicBoolean plazoVencido = new AtomicBoolean();
+
+        ExecutorCompletionService<EjecucionMotor> servicio = new ExecutorCompletionService<>(ejecutor);
+        List<Future<EjecucionMotor>> futuros = new ArrayList<>(motores.size());
+        try {
+            for (int i = 0; i < motores.size(); i++) {
+                MotorBusqueda motor = motores.get(i);
+                OpcionesBusqueda opcionesMotor = opciones.copia();
+                opcionesMotor.setTokenCancelacion(token);
+                if (oyentes != null)
+                    opcionesMotor.setOyente(oyentes.get(i));
+                futuros.add(servicio.submit(() -> ejecutarMotor(motor, problema, opcionesMotor, plazoVencido)));
+            }
+        } catch (RejectedExecutionException ex) {
+            token.cancelar();
+            esperarTodos(futuros);
+            throw ex;
+        }
+        CompletableFuture<Integer> optima = calidad == CalidadRequerida.PRIMERA_OPTIMA
+                ? CompletableFuture.supplyAsync(() -> longitudOptima(problema), ORACULO)
+                : null;
+
+        EjecucionMotor[] ejecuciones = new EjecucionMotor[motores.size()];
+        EjecucionMotor ganador = null;
+        try {
+            for (int pendientes = motores.size(); pendientes > 0; pendientes--) {
+                Future<EjecucionMotor> listo = null;
+                while (listo == null) {
+                    long restante = limite - System.nanoTime();
+                    if (limite != Long.MAX_VALUE && restante <= 0 && !token.isCancelado()) {
+                        plazoVencido.set(true);
+                        token.cancelar();
+                    }
+                    listo = token.isCancelado() || limite == Long.MAX_VALUE
+                            ? servicio.take()
+                            : servicio.poll(restante, TimeUnit.NANOSECONDS);
+                }
+                EjecucionMotor e = obtener(listo);
+                ejecuciones[futuros.indexOf(listo)] = e;
+                if (ganador == null && cumple(e, optima, limite, token, plazoVencido)) {
+                    ganador = e;
+                    if (calidad != CalidadRequerida.TODOS)
+                        token.cancelar();
+                }
+            }
+        } catch (InterruptedException ex) {
+            token.cancelar();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Portafolio interrumpido");
+        } catch (RuntimeException | Error ex) {
+            token.cancelar();
+            esperarTodos(futuros);
+            throw ex;
+        }
+
+        return new ResultadoPortafolio(ganador, new ArrayList<>(Arrays.asList(ejecuciones)), plazoVencido.get(),
+                System.nanoTime() - inicio);
+    }
+
+    private static EjecucionMotor ejecutarMotor(MotorBusqueda motor, Problema problema, OpcionesBusqueda opciones,
+                                                AtomicBoolean plazoVencido) {
+        long inicio = System.nanoTime();
+        try {
+            ResultadoBusqueda r = motor.resolver(problema, opciones);
+            return new EjecucionMotor(motor.getNombre(), EjecucionMotor.Estado.TERMINADO, r,
+                    System.nanoTime() - inicio, null);
+        } catch (CancellationException e) {
+            EjecucionMotor.Estado estado = plazoVencido.get() ? EjecucionMotor.Estado.PLAZO_VENCIDO : EjecucionMotor.Estado.CANCELADO;
+            return new EjecucionMotor(motor.getNombre(), estado, null, System.nanoTime() - inicio, null);
+        } catch (RuntimeException | Error e) {
+            return new EjecucionMotor(motor.getNombre(), EjecucionMotor.Estado.FALLIDO, null,
+                    System.nanoTime() - inicio, e);
+        }
+    }
+
+    private static EjecucionMotor obtener(Future<EjecucionMotor> futuro) throws InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            // ejecutarMotor captura todo lo que lanza el motor
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** Espera a que terminen los motores ya enviados, sin mirar cómo. */
+    private static void esperarTodos(List<Future<EjecucionMotor>> futuros) {
+        boolean interrumpido = false;
+        for (Future<EjecucionMotor> f : futuros) {
+            while (true) {
+                try {
+                    f.get();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrumpido = true;
+                } catch (ExecutionException | CancellationException ex) {
+                    break;
+                }
+            }
+        }
+        if (interrumpido)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Si la ejecución cumple la calidad. Sin optima (cualquier calidad salvo
+     * PRIMERA_OPTIMA) basta con una solución; si no, espera la longitud
+     * óptima mientras no venza el plazo ni se cancele el token.
+     */
+    private static boolean cumple(EjecucionMotor e, CompletableFuture<Integer> optima, long limite,
+                                  TokenCancelacion token, AtomicBoolean plazoVencido) throws InterruptedException {
+        if (e.getEstado() != EjecucionMotor.Estado.TERMINADO || e.getResultado().getLongitudSolucion() == 0)
+            return false;
+        if (optima == null)
+            return true;
+        while (!optima.isDone()) {
+            if (token.isCancelado())
+                return false;
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) {
+                plazoVencido.set(true);
+                token.cancelar();
+                return false;
+            }
+            try {
+                optima.get(Math.min(restante, INTERVALO_ESPERA_NS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                // seguir esperando
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("No se pudo calcular la longitud óptima", ex.getCause());
+            }
+        }
+        return e.getResultado().getLongitudSolucion() == optima.join();
+    }
+
+    /** Nodos del camino óptimo, o -1 si no hay solución. */
+    private static int longitudOptima(Problema problema) {
+        int d = OraculoDistancias.para(problema).distancia(EstadoCodificado.codificar(problema.getInicial()));
+        return d == OraculoDistancias.INALCANZABLE ? -1 : d + 1;
+    }
+
+    /** Cancela lo que esté en curso y libera los hilos. */
+    @Override
+    public void close() {
+        ejecutor.shutdownNow();
+    }
+}
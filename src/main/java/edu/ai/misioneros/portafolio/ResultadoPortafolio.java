@@ -0,0 +1,46 @@
+package edu.ai.misioneros.portafolio;
+
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de un portafolio: el motor ganador (si alguno cumplió la
+ * calidad pedida) y cómo terminó cada motor, en el orden en que se pasaron.
+ */
+public class ResultadoPortafolio {
+    private final EjecucionMotor ganador;
+    private final List<EjecucionMotor> ejecuciones;
+    private final boolean plazoVencido;
+    private final long tiempoNs;
+
+    public ResultadoPortafolio(EjecucionMotor ganador, List<EjecucionMotor> ejecuciones, boolean plazoVencido,
+                               long tiempoNs) {
+        this.ganador = ganador;
+        this.ejecuciones = Collections.unmodifiableList(ejecuciones);
+        this.plazoVencido = plazoVencido;
+        this.tiempoNs = tiempoNs;
+    }
+
+    /** Ejecución que cumplió la calidad pedida primero, o null. */
+    public EjecucionMotor getGanador() { return ganador; }
+
+    /** Resultado del ganador, o null si ninguno cumplió la calidad. */
+    public ResultadoBusqueda getResultado() { return ganador != null ? ganador.getResultado() : null; }
+
+    public List<EjecucionMotor> getEjecuciones() { return ejecuciones; }
+
+    /** Ejecución del motor con ese nombre, o null. */
+    public EjecucionMotor getEjecucion(String nombre) {
+        for (EjecucionMotor e : ejecuciones) {
+            if (e.getNombre().equals(nombre))
+                return e;
+        }
+        return null;
+    }
+
+    public boolean isPlazoVencido() { return plazoVencido; }
+    public long getTiempoNs() { return tiempoNs; }
+    public long getTiempoMs() { return tiempoNs / 1_000_000; }
+}
@@ -0,0 +1,141 @@
+package edu.ai.misioneros.vista;
+
+import edu.ai.misioneros.busqueda.OyenteBusqueda;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.modelo.Problema;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hace crecer un PanelArbol mientras el motor busca. El hilo del motor solo
+ * copia cada evento a un buffer de ints; el hilo de JavaFX lo vacía en
+ * lotes. Como mucho hay un Platform.runLater pendiente, así que todos los
+ * eventos que llegan mientras se dibuja un lote se juntan en el siguiente y
+ * se redibuja a lo sumo una vez por lote, al ritmo que JavaFX pueda pintar.
+ * La búsqueda nunca espera al dibujo.
+ * Pasado LIMITE_NODOS se deja de publicar: redibujar recorre todos los
+ * nodos visibles y un árbol enorme no se puede seguir en vivo. El árbol
+ * definitivo llega igualmente con el resultado.
+ */
+public class ArbolEnVivo implements OyenteBusqueda {
+    public static final int LIMITE_NODOS = 1500;
+
+    private static final int GENERADO = 0;
+    private static final int EXPANDIDO = 1;
+    private static final int OBJETIVO = 2;
+    private static final int CAMPOS = 8; // tipo, id, padre, código, g, h, f, movimiento
+
+    private final PanelArbol panel;
+    private final Problema problema;
+    private final AtomicBoolean programado = new AtomicBoolean();
+    private volatile boolean activo = true;
+    private int generados; // solo lo toca el hilo del motor
+
+    // Eventos sin dibujar, protegidos por this
+    private int[] pendientes = new int[CAMPOS * 256];
+    private int numPendientes;
+    private int[] lote = new int[CAMPOS * 256]; // solo en el hilo de JavaFX
+
+    // Solo en el hilo de JavaFX
+    private final List<Nodo> nodos = new ArrayList<>(); // índice en la arena -> Nodo
+
+    public ArbolEnVivo(PanelArbol panel, Problema problema) {
+        this.panel = panel;
+        this.problema = problema;
+    }
+
+    /** Descarta lo que aún no se dibujó y deja de tocar el panel (por ejemplo, al llegar el resultado). */
+    public void detener() {
+        activo = false;
+    }
+
+    @Override
+    public void nodoGenerado(int id, int idPadre, int codigo, int g, int h, int f, int movimiento) {
+        if (generados >= LIMITE_NODOS)
+            return;
+        generados++;
+        publicar(GENERADO, id, idPadre, codigo, g, h, f, movimiento);
+    }
+
+    @Override
+    public void nodoExpandido(int id) {
+        if (generados < LIMITE_NODOS)
+            publicar(EXPANDIDO, id, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void objetivoEncontrado(int id) {
+        publicar(OBJETIVO, id, 0, 0, 0, 0, 0, 0);
+    }
+
+    private void publicar(int tipo, int id, int padre, int codigo, int g, int h, int f, int mov) {
+        if (!activo)
+            return;
+        synchronized (this) {
+            if (numPendientes + CAMPOS > pendientes.length)
+                pendientes = Arrays.copyOf(pendientes, pendientes.length << 1);
+            int i = numPendientes;
+            pendientes[i] = tipo;
+            pendientes[i + 1] = id;
+            pendientes[i + 2] = padre;
+            pendientes[i + 3] = codigo;
+            pendientes[i + 4] = g;
+            pendientes[i + 5] = h;
+            pendientes[i + 6] = f;
+            pendientes[i + 7] = mov;
+            numPendientes = i + CAMPOS;
+        }
+        if (programado.compareAndSet(false, true))
+            Platform.runLater(this::vaciar);
+    }
+
+    /** Dibuja en el hilo de JavaFX todo lo acumulado desde el último lote. */
+    private void vaciar() {
+        // Lo que llegue desde aquí programa otro lote
+        programado.set(false);
+        int n;
+        synchronized (this) {
+            int[] t = lote;
+            lote = pendientes;
+            pendientes = t;
+            n = numPendientes;
+            numPendientes = 0;
+        }
+        if (!activo || n == 0)
+            return;
+
+        List<Nodo> nuevos = new ArrayList<>();
+        Nodo actual = null;
+        for (int i = 0; i < n; i += CAMPOS) {
+            int id = lote[i + 1];
+            if (lote[i] == GENERADO) {
+                Nodo padre = lote[i + 2] >= 0 && lote[i + 2] < nodos.size() ? nodos.get(lote[i + 2]) : null;
+                Nodo nodo = new Nodo(lote[i + 3], problema.getN(), padre, lote[i + 4], lote[i + 5], lote[i + 6],
+                        describir(padre, lote[i + 7]));
+                if (padre != null)
+                    padre.agregarHijo(nodo);
+                while (nodos.size() < id)
+                    nodos.add(null);
+                if (id == nodos.size())
+                    nodos.add(nodo);
+                else
+                    nodos.set(id, nodo);
+                nuevos.add(nodo);
+            } else if (id < nodos.size() && nodos.get(id) != null) {
+                actual = nodos.get(id);
+            }
+        }
+        panel.agregarEnVivo(nuevos, actual);
+    }
+
+    private String describir(Nodo padre, int mov) {
+        if (padre == null || mov < 0)
+            return "Inicio";
+        return problema.getDescripcion(mov, EstadoCodificado.lado(padre.getCodigo()));
+    }
+}
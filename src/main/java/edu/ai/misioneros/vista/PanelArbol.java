@@ -1,10 +1,18 @@
 package edu.ai.misioneros.vista;
 
+import edu.ai.misioneros.diagnostico.EventoCalculoPosiciones;
+import edu.ai.misioneros.diagnostico.EventoRedibujado;
 import edu.ai.misioneros.modelo.Estado;
+import edu.ai.misioneros.modelo.EstadoCodificado;
 import edu.ai.misioneros.modelo.Nodo;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
@@ -16,16 +24,39 @@ import java.util.*;
 /**
  * Dibuja el árbol de búsqueda con nodos en niveles y conexiones.
  * Muestra solo el camino solución inicialmente, expandiendo gradualmente.
+ * La disposición se calcula una vez por cambio de los nodos visibles, pero
+ * solo tienen objetos en la escena los nodos y aristas que caen en la
+ * ventana (la del ScrollPane pasado a setVistaDesplazable(), o el propio
+ * panel), bajo el zoom y el arrastre actuales, más un margen. Al desplazar,
+ * arrastrar o hacer zoom se reciclan los visuales que salen para los que
+ * entran, así que la escena crece con lo que se ve y no con el árbol. Se
+ * guardan ocultos hasta MAX_LIBRES visuales de cada tipo para reutilizar;
+ * los que sobran (por ejemplo al achicar el zoom) se quitan de la escena.
+ * Los visuales persisten entre redibujados (un mapa de Nodo a su visual):
+ * redibujar() solo mueve los que cambiaron de lugar, quita los que dejaron
+ * de estar, da visual a los que entraron y cambia el estilo del nodo actual
+ * anterior y del nuevo. Avanzar o retroceder un paso no reconstruye la
+ * escena.
+ * La disposición también se conserva: se recalcula solo cuando se agregan
+ * nodos visibles (o se cambia de árbol), sobre los mismos arreglos de
+ * posición. Si un paso no agrega nodos, redibujar() solo cambia estilos.
+ * redibujar() y calcularPosiciones() emiten eventos JFR (EventoRedibujado y
+ * EventoCalculoPosiciones) con su duración y número de nodos.
  */
 public class PanelArbol extends Pane {
     private static final double NODE_WIDTH = 210; // Ancho del nodo completo
     private static final double NODE_HEIGHT = 170; // Alto del nodo completo
     private static final double H_SPACING = 220; // Separación horizontal entre nodos del mismo nivel
     private static final double V_SPACING = 220; // Separación vertical entre niveles (aumentado de 180 a 220)
+    private static final double MARGEN_VENTANA = NODE_WIDTH; // Se dibuja un poco más allá de lo visible
+    private static final int MAX_LIBRES = 256; // visuales ocultos guardados para reutilizar, de cada tipo
 
     private Nodo raiz;
     private List<Nodo> caminoSolucion = new ArrayList<>();
+    private final Set<Nodo> enCamino = new HashSet<>(); // los de caminoSolucion, para consultar
     private Nodo nodoActual;
+    private Nodo nodoActualDibujado;     // el que tiene el estilo de actual en la escena
+    private boolean restilizarTodo;      // cambió el camino: el estilo de todos los visuales
     private Set<Nodo> nodosVisibles = new HashSet<>(); // Solo mostrar ciertos nodos
     private boolean esVoraz = false; // Flag para identificar si es algoritmo voraz
 
@@ -36,6 +67,22 @@ public class PanelArbol extends Pane {
     private Group contenidoArbol;
     private Scale transformacionEscala;
 
+    // Disposición de los nodos visibles: {x, y, pasada} de la esquina superior izquierda
+    private final Map<Nodo, double[]> posiciones = new HashMap<>();
+    private boolean disposicionVieja = true; // se agregaron nodos visibles desde calcularPosiciones()
+    private int pasada;                      // la de calcularPosiciones() que ubicó cada nodo
+    private int ubicados;                    // nodos ubicados en la pasada
+    private double minXDisposicion, minYDisposicion, maxXDisposicion, maxYDisposicion;
+    private ScrollPane vistaDesplazable; // null: la ventana es el propio panel
+    // Visuales en la escena: solo los de la ventana; los que salen se reciclan
+    private final Group capaAristas = new Group();
+    private final Group capaNodos = new Group();
+    private final Map<Nodo, VisualNodo> visuales = new HashMap<>();
+    private final Map<Nodo, Line> aristas = new HashMap<>(); // por nodo hijo
+    private final ArrayDeque<VisualNodo> visualesLibres = new ArrayDeque<>();
+    private final ArrayDeque<Line> aristasLibres = new ArrayDeque<>();
+    private final Set<Node> sobrantes = new HashSet<>(); // reciclados que no caben en las listas
+
     // Variables para arrastrar
     private double ultimoX = 0;
     private double ultimoY = 0;
@@ -53,8 +100,18 @@ public class PanelArbol extends Pane {
         contenidoArbol = new Group();
         transformacionEscala = new Scale();
         contenidoArbol.getTransforms().add(transformacionEscala);
+        contenidoArbol.getChildren().addAll(capaAristas, capaNodos);
         getChildren().add(contenidoArbol);
 
+        // Zoom, arrastre o cambio de tamaño: actualizar lo que se ve
+        InvalidationListener ventana = o -> actualizarVentana();
+        transformacionEscala.xProperty().addListener(ventana);
+        transformacionEscala.yProperty().addListener(ventana);
+        contenidoArbol.layoutXProperty().addListener(ventana);
+        contenidoArbol.layoutYProperty().addListener(ventana);
+        widthProperty().addListener(ventana);
+        heightProperty().addListener(ventana);
+
         // Configurar eventos de zoom con la rueda del mouse
         setOnScroll(event -> {
             double factorZoom = event.getDeltaY() > 0 ? 1.1 : 0.9;
@@ -92,6 +149,19 @@ public class PanelArbol extends Pane {
         });
     }
 
+    /**
+     * ScrollPane que contiene a este panel: solo se dibuja lo que muestra su
+     * ventana, y se actualiza al desplazarlo.
+     */
+    public void setVistaDesplazable(ScrollPane scroll) {
+        this.vistaDesplazable = scroll;
+        InvalidationListener ventana = o -> actualizarVentana();
+        scroll.hvalueProperty().addListener(ventana);
+        scroll.vvalueProperty().addListener(ventana);
+        scroll.viewportBoundsProperty().addListener(ventana);
+        actualizarVentana();
+    }
+
     /**
      * Aplica zoom al árbol
      */
@@ -118,15 +188,14 @@ public class PanelArbol extends Pane {
         if (raiz == null || nodosVisibles.isEmpty())
             return;
 
-        Map<Nodo, double[]> posiciones = calcularPosiciones();
         if (posiciones.isEmpty())
             return;
 
-        // Calcular los límites del árbol
-        double minX = posiciones.values().stream().mapToDouble(v -> v[0]).min().orElse(0);
-        double maxX = posiciones.values().stream().mapToDouble(v -> v[0] + NODE_WIDTH).max().orElse(0);
-        double minY = posiciones.values().stream().mapToDouble(v -> v[1]).min().orElse(0);
-        double maxY = posiciones.values().stream().mapToDouble(v -> v[1] + NODE_HEIGHT).max().orElse(0);
+        // Límites del árbol, guardados por calcularPosiciones()
+        double minX = minXDisposicion;
+        double maxX = maxXDisposicion + NODE_WIDTH;
+        double minY = minYDisposicion;
+        double maxY = maxYDisposicion + NODE_HEIGHT;
 
         double anchoArbol = maxX - minX;
         double altoArbol = maxY - minY;
@@ -174,15 +243,21 @@ public class PanelArbol extends Pane {
         // Guardar zoom y posición antes de cambiar datos
         guardarEstadoZoom();
         
+        if (this.raiz != raiz)
+            this.disposicionVieja = true;
         this.raiz = raiz;
-        this.caminoSolucion.clear();
-        if (camino != null) {
-            this.caminoSolucion.addAll(camino);
+        List<Nodo> nuevoCamino = camino != null ? camino : Collections.emptyList();
+        if (!caminoSolucion.equals(nuevoCamino)) {
+            this.caminoSolucion.clear();
+            this.caminoSolucion.addAll(nuevoCamino);
+            this.enCamino.clear();
+            this.enCamino.addAll(nuevoCamino);
+            this.restilizarTodo = true;
         }
         this.nodoActual = null;
-        this.nodosVisibles.clear();
+        ocultarTodos();
         if (raiz != null) {
-            this.nodosVisibles.add(raiz);
+            mostrar(raiz);
         }
         redibujar();
         
@@ -190,6 +265,34 @@ public class PanelArbol extends Pane {
         restaurarEstadoZoom();
     }
     
+    /**
+     * Agrega, todos visibles, los nodos que llegan mientras la búsqueda corre
+     * (ver ArbolEnVivo) y redibuja una sola vez. Un nodo sin padre empieza un
+     * árbol nuevo; actual, si no es null, queda resaltado.
+     */
+    public void agregarEnVivo(List<Nodo> nuevos, Nodo actual) {
+        guardarEstadoZoom();
+
+        for (Nodo n : nuevos) {
+            if (n.getPadre() == null) {
+                this.raiz = n;
+                this.disposicionVieja = true;
+                if (!caminoSolucion.isEmpty()) {
+                    this.caminoSolucion.clear();
+                    this.enCamino.clear();
+                    this.restilizarTodo = true;
+                }
+                ocultarTodos();
+            }
+            mostrar(n);
+        }
+        if (actual != null)
+            this.nodoActual = actual;
+        redibujar();
+
+        restaurarEstadoZoom();
+    }
+
     public void setEsVoraz(boolean esVoraz) {
         this.esVoraz = esVoraz;
     }
@@ -217,13 +320,13 @@ public class PanelArbol extends Pane {
         this.nodoActual = actual;
         // Mostrar el nodo actual, su padre, y TODOS sus hijos
         if (actual != null) {
-            this.nodosVisibles.add(actual);
+            mostrar(actual);
             if (actual.getPadre() != null) {
-                this.nodosVisibles.add(actual.getPadre());
+                mostrar(actual.getPadre());
             }
             // Agregar TODOS los hijos, no solo los del camino
             for (Nodo hijo : actual.getHijos()) {
-                this.nodosVisibles.add(hijo);
+                mostrar(hijo);
             }
         }
         redibujar();
@@ -248,87 +351,315 @@ public class PanelArbol extends Pane {
     private void expandirRecursivo(Nodo objetivo, Nodo actual) {
         if (actual == null)
             return;
-        nodosVisibles.add(actual);
+        mostrar(actual);
         if (actual == objetivo)
             return;
 
         // Si hay hijos en el camino, seguir por ese camino
         for (Nodo hijo : actual.getHijos()) {
-            if (caminoSolucion.contains(hijo)) {
+            if (enCamino.contains(hijo)) {
                 expandirRecursivo(objetivo, hijo);
                 break;
             }
         }
     }
 
+    private void mostrar(Nodo n) {
+        if (nodosVisibles.add(n))
+            disposicionVieja = true;
+    }
+
+    private void ocultarTodos() {
+        if (!nodosVisibles.isEmpty()) {
+            nodosVisibles.clear();
+            disposicionVieja = true;
+        }
+    }
+
     private void redibujar() {
-        contenidoArbol.getChildren().clear();
-        if (raiz == null)
+        EventoRedibujado evento = new EventoRedibujado();
+        evento.begin();
+        if (raiz == null) {
+            posiciones.clear();
+            disposicionVieja = true;
+            liberarVisuales();
+            evento.terminar(nombrePanel(), 0, 0, 0);
             return;
+        }
 
-        Map<Nodo, double[]> posiciones = calcularPosiciones();
+        // Sin nodos nuevos la disposición y la ventana siguen como estaban
+        // (los cambios de ventana los atienden sus oyentes): solo estilos
+        boolean reubicar = disposicionVieja;
+        if (reubicar) {
+            calcularPosiciones();
+            disposicionVieja = false;
+        }
+        int actualizados = actualizarVisuales(reubicar);
+        if (reubicar)
+            actualizados += actualizarVentana();
 
-        Group edges = new Group();
-        Group nodes = new Group();
+        // Ajustar tamaño preferido para scroll
+        setPrefSize(Math.max(1200, maxXDisposicion + NODE_WIDTH + 50),
+                Math.max(800, maxYDisposicion + NODE_HEIGHT + 50));
+        evento.terminar(nombrePanel(), nodosVisibles.size(), visuales.size(), actualizados);
 
-        // Conexiones solo entre nodos visibles
-        for (Map.Entry<Nodo, double[]> entry : posiciones.entrySet()) {
-            Nodo n = entry.getKey();
-            double[] p = entry.getValue();
-            if (n.getPadre() != null && nodosVisibles.contains(n.getPadre())) {
-                double[] pp = posiciones.get(n.getPadre());
-                if (pp != null) {
-                    Line line = new Line(pp[0] + NODE_WIDTH / 2, pp[1] + NODE_HEIGHT - 30,
-                            p[0] + NODE_WIDTH / 2, p[1]);
-                    line.setStroke(Color.web("#64748B"));
-                    line.setStrokeWidth(1.5);
-                    edges.getChildren().add(line);
-                }
+        // Solo ajustar zoom automáticamente si no hay zoom aplicado manualmente
+        // (para no sobrescribir el zoom guardado)
+        if (!zoomManual) {
+            Platform.runLater(() -> ajustarZoomAutomatico());
+        }
+    }
+
+    /**
+     * Lleva los visuales que ya están en la escena a la nueva disposición si
+     * se recalculó (reubicar): recicla los de nodos que dejaron de estar y
+     * mueve los demás (fijar la misma posición no cambia nada en la escena).
+     * Después actualiza el estilo solo donde cambió. Devuelve cuántos nodos
+     * cambiaron de estilo.
+     */
+    private int actualizarVisuales(boolean reubicar) {
+        if (reubicar)
+            reubicarVisuales();
+
+        int restilizados = 0;
+        if (restilizarTodo) {
+            for (Map.Entry<Nodo, VisualNodo> e : visuales.entrySet())
+                aplicarEstilo(e.getValue().marco, e.getKey());
+            restilizados = visuales.size();
+        } else if (nodoActual != nodoActualDibujado) {
+            restilizados += restilizar(nodoActualDibujado);
+            restilizados += restilizar(nodoActual);
+        }
+        restilizarTodo = false;
+        nodoActualDibujado = nodoActual;
+        return restilizados;
+    }
+
+    private void reubicarVisuales() {
+        Iterator<Map.Entry<Nodo, VisualNodo>> itNodos = visuales.entrySet().iterator();
+        while (itNodos.hasNext()) {
+            Map.Entry<Nodo, VisualNodo> e = itNodos.next();
+            double[] p = posiciones.get(e.getKey());
+            if (p == null) {
+                reciclar(e.getValue());
+                itNodos.remove();
+            } else {
+                e.getValue().setLayoutX(p[0]);
+                e.getValue().setLayoutY(p[1]);
             }
         }
+        Iterator<Map.Entry<Nodo, Line>> itAristas = aristas.entrySet().iterator();
+        while (itAristas.hasNext()) {
+            Map.Entry<Nodo, Line> e = itAristas.next();
+            double[] p = posiciones.get(e.getKey());
+            double[] pp = posiciones.get(e.getKey().getPadre());
+            if (p == null || pp == null) {
+                reciclar(e.getValue());
+                itAristas.remove();
+            } else {
+                ubicarArista(e.getValue(), pp, p);
+            }
+        }
+    }
+
+    private int restilizar(Nodo n) {
+        VisualNodo visual = n != null ? visuales.get(n) : null;
+        if (visual == null)
+            return 0;
+        aplicarEstilo(visual.marco, n);
+        return 1;
+    }
 
-        // Nodos visibles
+    /**
+     * Deja en la escena exactamente los nodos y aristas de la disposición que
+     * caen en la ventana: recicla los que salieron y da visual a los que
+     * entraron. Devuelve a cuántos nodos dio visual.
+     */
+    private int actualizarVentana() {
+        if (posiciones.isEmpty()) {
+            liberarVisuales();
+            return 0;
+        }
+        Bounds v = contenidoArbol.parentToLocal(ventanaEnPanel());
+        double x0 = v.getMinX() - MARGEN_VENTANA;
+        double y0 = v.getMinY() - MARGEN_VENTANA;
+        double x1 = v.getMaxX() + MARGEN_VENTANA;
+        double y1 = v.getMaxY() + MARGEN_VENTANA;
+
+        // Reciclar lo que salió de la ventana
+        Iterator<Map.Entry<Nodo, VisualNodo>> itNodos = visuales.entrySet().iterator();
+        while (itNodos.hasNext()) {
+            Map.Entry<Nodo, VisualNodo> e = itNodos.next();
+            double[] p = posiciones.get(e.getKey());
+            if (p == null || !nodoEnVentana(p, x0, y0, x1, y1)) {
+                reciclar(e.getValue());
+                itNodos.remove();
+            }
+        }
+        Iterator<Map.Entry<Nodo, Line>> itAristas = aristas.entrySet().iterator();
+        while (itAristas.hasNext()) {
+            Map.Entry<Nodo, Line> e = itAristas.next();
+            if (!aristaEnVentana(e.getValue(), x0, y0, x1, y1)) {
+                reciclar(e.getValue());
+                itAristas.remove();
+            }
+        }
+
+        // Dar visual a lo que entró
+        int nuevos = 0;
         for (Map.Entry<Nodo, double[]> entry : posiciones.entrySet()) {
             Nodo n = entry.getKey();
             double[] p = entry.getValue();
-            Group g = crearNodoVisual(n);
-            g.setLayoutX(p[0]);
-            g.setLayoutY(p[1]);
-            nodes.getChildren().add(g);
+            if (!visuales.containsKey(n) && nodoEnVentana(p, x0, y0, x1, y1)) {
+                VisualNodo visual = obtenerVisual(n);
+                visual.setLayoutX(p[0]);
+                visual.setLayoutY(p[1]);
+                visuales.put(n, visual);
+                nuevos++;
+            }
+            // Conexiones solo entre nodos visibles
+            double[] pp = n.getPadre() != null ? posiciones.get(n.getPadre()) : null;
+            if (pp != null && !aristas.containsKey(n)) {
+                double ax = pp[0] + NODE_WIDTH / 2;
+                double bx = p[0] + NODE_WIDTH / 2;
+                if (Math.max(ax, bx) >= x0 && Math.min(ax, bx) <= x1
+                        && p[1] >= y0 && pp[1] + NODE_HEIGHT - 30 <= y1)
+                    aristas.put(n, obtenerArista(pp, p));
+            }
         }
+        quitarSobrantes();
+        return nuevos;
+    }
 
-        contenidoArbol.getChildren().addAll(edges, nodes);
+    /** Ventana en coordenadas del panel; el tamaño mínimo del panel mientras no haya una. */
+    private Bounds ventanaEnPanel() {
+        if (vistaDesplazable != null) {
+            Bounds vb = vistaDesplazable.getViewportBounds();
+            if (vb.getWidth() > 0 && vb.getHeight() > 0) {
+                // El ScrollPane desplaza el contenido: minX/minY son el desplazamiento con signo cambiado
+                return new BoundingBox(-vb.getMinX(), -vb.getMinY(), vb.getWidth(), vb.getHeight());
+            }
+        } else if (getWidth() > 0 && getHeight() > 0) {
+            return new BoundingBox(0, 0, getWidth(), getHeight());
+        }
+        return new BoundingBox(0, 0, 1200, 800);
+    }
 
-        // Ajustar tamaño preferido para scroll
-        double maxX = posiciones.values().stream().mapToDouble(v -> v[0]).max().orElse(0);
-        double maxY = posiciones.values().stream().mapToDouble(v -> v[1]).max().orElse(0);
-        setPrefSize(Math.max(1200, maxX + NODE_WIDTH + 50), Math.max(800, maxY + NODE_HEIGHT + 50));
+    private static boolean nodoEnVentana(double[] p, double x0, double y0, double x1, double y1) {
+        return p[0] + NODE_WIDTH >= x0 && p[0] <= x1 && p[1] + NODE_HEIGHT >= y0 && p[1] <= y1;
+    }
 
-        // Solo ajustar zoom automáticamente si no hay zoom aplicado manualmente
-        // (para no sobrescribir el zoom guardado)
-        if (!zoomManual) {
-            Platform.runLater(() -> ajustarZoomAutomatico());
+    private static boolean aristaEnVentana(Line l, double x0, double y0, double x1, double y1) {
+        return Math.max(l.getStartX(), l.getEndX()) >= x0 && Math.min(l.getStartX(), l.getEndX()) <= x1
+                && Math.max(l.getStartY(), l.getEndY()) >= y0 && Math.min(l.getStartY(), l.getEndY()) <= y1;
+    }
+
+    /** Saca de la escena todos los visuales, para reutilizarlos. */
+    private void liberarVisuales() {
+        for (VisualNodo v : visuales.values())
+            reciclar(v);
+        visuales.clear();
+        for (Line l : aristas.values())
+            reciclar(l);
+        aristas.clear();
+        quitarSobrantes();
+    }
+
+    /** Saca de la escena, de una vez, los visuales reciclados que no se guardaron. */
+    private void quitarSobrantes() {
+        if (sobrantes.isEmpty())
+            return;
+        capaNodos.getChildren().removeAll(sobrantes);
+        capaAristas.getChildren().removeAll(sobrantes);
+        sobrantes.clear();
+    }
+
+    private void reciclar(VisualNodo v) {
+        if (visualesLibres.size() < MAX_LIBRES) {
+            v.setVisible(false);
+            visualesLibres.push(v);
+        } else {
+            sobrantes.add(v);
+        }
+    }
+
+    private void reciclar(Line l) {
+        if (aristasLibres.size() < MAX_LIBRES) {
+            l.setVisible(false);
+            aristasLibres.push(l);
+        } else {
+            sobrantes.add(l);
+        }
+    }
+
+    private VisualNodo obtenerVisual(Nodo n) {
+        Estado estado = n.getEstado();
+        VisualNodo visual = visualesLibres.poll();
+        if (visual == null) {
+            visual = new VisualNodo(estado);
+            capaNodos.getChildren().add(visual);
+        } else {
+            visual.matriz.setEstado(estado);
+            visual.setVisible(true);
+        }
+        mostrarNodo(visual, n, estado);
+        return visual;
+    }
+
+    private Line obtenerArista(double[] pp, double[] p) {
+        Line line = aristasLibres.poll();
+        if (line == null) {
+            line = new Line();
+            line.setStroke(Color.web("#64748B"));
+            line.setStrokeWidth(1.5);
+            capaAristas.getChildren().add(line);
+        } else {
+            line.setVisible(true);
         }
+        ubicarArista(line, pp, p);
+        return line;
+    }
+
+    /** Del borde inferior del padre (pp) al superior del hijo (p). */
+    private static void ubicarArista(Line line, double[] pp, double[] p) {
+        line.setStartX(pp[0] + NODE_WIDTH / 2);
+        line.setStartY(pp[1] + NODE_HEIGHT - 30);
+        line.setEndX(p[0] + NODE_WIDTH / 2);
+        line.setEndY(p[1]);
     }
 
-    private Group crearNodoVisual(Nodo n) {
-        Group cont = new Group();
+    /** Textos y estilo del nodo en un visual (nuevo o reciclado). */
+    private void mostrarNodo(VisualNodo visual, Nodo n, Estado estado) {
+        visual.lblEstado.setText(estado.toString());
+        visual.lblEstado.setLayoutY(visual.matriz.getPrefHeight() + 15);
 
-        PanelMatriz matriz = new PanelMatriz(n.getEstado());
-        matriz.setLayoutX(10);
-        matriz.setLayoutY(10);
+        // Mostrar valores según el tipo de algoritmo
+        String textoValores;
+        if (esVoraz) {
+            // Para voraz: mostrar g, n, H (donde H = FH = g + n)
+            int g = n.getGreedyG();
+            int nVal = n.getGreedyN();
+            int H = n.getH(); // o n.getFh() ya que H = FH en voraz
+            textoValores = "g=" + g + " n=" + nVal + " H=" + H;
+        } else {
+            // Para A*: mostrar h, g (nivel), FH
+            textoValores = "h=" + n.getH() + " g=" + n.getNivel() + " FH=" + n.getFh();
+        }
+        visual.lblValores.setText(textoValores);
+        visual.lblValores.setLayoutY(visual.matriz.getPrefHeight() + 32);
 
-        Rectangle marco = new Rectangle(NODE_WIDTH, NODE_HEIGHT);
+        aplicarEstilo(visual.marco, n);
+    }
+
+    private void aplicarEstilo(Rectangle marco, Nodo n) {
         marco.setFill(Color.WHITE);
         marco.setStroke(Color.BLACK);
         marco.setStrokeWidth(1);
-        marco.setArcWidth(8);
-        marco.setArcHeight(8);
 
         // Estilos según tipo de nodo
         boolean esInicial = n.getPadre() == null;
-        boolean esObjetivo = n.getEstado().esObjetivo();
-        boolean enCamino = caminoSolucion.contains(n);
+        boolean esObjetivo = EstadoCodificado.esObjetivo(n.getCodigo());
+        boolean enCamino = this.enCamino.contains(n);
         if (esInicial) {
             marco.setStroke(Color.web("#2563EB"));
             marco.setStrokeWidth(3);
@@ -346,93 +677,118 @@ public class PanelArbol extends Pane {
             marco.setStroke(Color.web("#F59E0B"));
             marco.setStrokeWidth(4);
         }
-
-        Label lblEstado = new Label(n.getEstado().toString());
-        lblEstado.setLayoutX(10);
-        lblEstado.setLayoutY(matriz.getPrefHeight() + 15);
-        lblEstado.setStyle("-fx-font-weight: bold; -fx-font-size: 11px;");
-
-        // Mostrar valores según el tipo de algoritmo
-        String textoValores;
-        if (esVoraz) {
-            // Para voraz: mostrar g, n, H (donde H = FH = g + n)
-            int g = n.getGreedyG();
-            int nVal = n.getGreedyN();
-            int H = n.getH(); // o n.getFh() ya que H = FH en voraz
-            textoValores = "g=" + g + " n=" + nVal + " H=" + H;
-        } else {
-            // Para A*: mostrar h, g (nivel), FH
-            textoValores = "h=" + n.getH() + " g=" + n.getNivel() + " FH=" + n.getFh();
-        }
-        
-        Label lblValores = new Label(textoValores);
-        lblValores.setLayoutX(10);
-        lblValores.setLayoutY(matriz.getPrefHeight() + 32);
-        lblValores.setStyle("-fx-font-size: 10px;");
-
-        cont.getChildren().addAll(marco, matriz, lblEstado, lblValores);
-        return cont;
     }
 
-    private Map<Nodo, double[]> calcularPosiciones() {
-        Map<Nodo, double[]> pos = new HashMap<>();
-        if (nodosVisibles.isEmpty())
-            return pos;
-        if (raiz == null)
-            return pos;
-
-        // Agrupar por nivel
-        Map<Integer, List<Nodo>> niveles = new HashMap<>();
-        for (Nodo n : nodosVisibles) {
-            niveles.computeIfAbsent(n.getNivel(), k -> new ArrayList<>()).add(n);
+    /**
+     * Recalcula la disposición de los nodos visibles en el mapa posiciones,
+     * reutilizando el arreglo de cada nodo que ya estaba, y guarda sus
+     * límites.
+     */
+    private void calcularPosiciones() {
+        EventoCalculoPosiciones evento = new EventoCalculoPosiciones();
+        evento.begin();
+        if (nodosVisibles.isEmpty() || raiz == null) {
+            posiciones.clear();
+            maxXDisposicion = maxYDisposicion = 0;
+            evento.terminar(nombrePanel(), nodosVisibles.size(), 0);
+            return;
         }
 
-        // Calcular posiciones de manera jerárquica
-        double startX = 50;
+        pasada++;
+        minXDisposicion = minYDisposicion = Double.POSITIVE_INFINITY;
+        maxXDisposicion = maxYDisposicion = 0;
 
         // Recorrer desde la raíz hacia abajo asignando posiciones
-        asignarPosicionesRecursivo(raiz, null, pos, startX, 30);
+        double startX = 50;
+        ubicados = 0;
+        asignarPosicionesRecursivo(raiz, startX, 30);
+        // Los nodos visibles no alcanzables desde la raíz no tienen posición
+        if (ubicados < posiciones.size())
+            posiciones.values().removeIf(p -> p[2] != pasada);
+
+        evento.terminar(nombrePanel(), nodosVisibles.size(), posiciones.size());
+    }
 
-        return pos;
+    private String nombrePanel() {
+        return esVoraz ? "Voraz" : "A*";
     }
 
-    private double asignarPosicionesRecursivo(Nodo nodo, Nodo padre, Map<Nodo, double[]> pos, double xInicial,
-            double yActual) {
+    private double asignarPosicionesRecursivo(Nodo nodo, double xInicial, double yActual) {
         if (!nodosVisibles.contains(nodo)) {
             return xInicial;
         }
 
-        // Ya tiene posición asignada
-        if (pos.containsKey(nodo)) {
-            return pos.get(nodo)[0] + NODE_WIDTH / 2;
+        // Ya tiene posición asignada en esta pasada
+        double[] p = posiciones.get(nodo);
+        if (p != null && p[2] == pasada) {
+            return p[0] + NODE_WIDTH / 2;
         }
 
-        List<Nodo> hijosVisibles = new ArrayList<>();
+        int hijosVisibles = 0;
         for (Nodo hijo : nodo.getHijos()) {
             if (nodosVisibles.contains(hijo)) {
-                hijosVisibles.add(hijo);
+                hijosVisibles++;
             }
         }
 
-        if (hijosVisibles.isEmpty()) {
+        if (hijosVisibles == 0) {
             // Nodo hoja, centrarlo
-            pos.put(nodo, new double[] { xInicial, yActual });
+            ubicar(nodo, p, xInicial, yActual);
             return xInicial + NODE_WIDTH;
         } else {
             // Distribuir hijos horizontalmente
-            double espacioNecesario = hijosVisibles.size() * H_SPACING;
+            double espacioNecesario = hijosVisibles * H_SPACING;
             double xCentral = xInicial + espacioNecesario / 2 - NODE_WIDTH / 2;
 
-            pos.put(nodo, new double[] { xCentral, yActual });
+            ubicar(nodo, p, xCentral, yActual);
 
             // Asignar posiciones a los hijos
             double posHijo = xInicial;
-            for (Nodo hijo : hijosVisibles) {
-                posHijo = asignarPosicionesRecursivo(hijo, nodo, pos, posHijo, yActual + V_SPACING);
-                posHijo += 50; // Espacio mínimo entre hermanos
+            for (Nodo hijo : nodo.getHijos()) {
+                if (nodosVisibles.contains(hijo)) {
+                    posHijo = asignarPosicionesRecursivo(hijo, posHijo, yActual + V_SPACING);
+                    posHijo += 50; // Espacio mínimo entre hermanos
+                }
             }
 
             return xInicial + espacioNecesario;
         }
     }
+
+    /** Escribe la posición en el arreglo que ya tenía el nodo (p), o en uno nuevo. */
+    private void ubicar(Nodo nodo, double[] p, double x, double y) {
+        if (p == null) {
+            p = new double[3];
+            posiciones.put(nodo, p);
+        }
+        p[0] = x;
+        p[1] = y;
+        p[2] = pasada;
+        ubicados++;
+        minXDisposicion = Math.min(minXDisposicion, x);
+        minYDisposicion = Math.min(minYDisposicion, y);
+        maxXDisposicion = Math.max(maxXDisposicion, x);
+        maxYDisposicion = Math.max(maxYDisposicion, y);
+    }
+
+    /** Marco, matriz y etiquetas de un nodo; se reutiliza para otro nodo al salir de la ventana. */
+    private static final class VisualNodo extends Group {
+        final Rectangle marco = new Rectangle(NODE_WIDTH, NODE_HEIGHT);
+        final PanelMatriz matriz;
+        final Label lblEstado = new Label();
+        final Label lblValores = new Label();
+
+        VisualNodo(Estado estado) {
+            matriz = new PanelMatriz(estado);
+            matriz.setLayoutX(10);
+            matriz.setLayoutY(10);
+            marco.setArcWidth(8);
+            marco.setArcHeight(8);
+            lblEstado.setLayoutX(10);
+            lblEstado.setStyle("-fx-font-weight: bold; -fx-font-size: 11px;");
+            lblValores.setLayoutX(10);
+            lblValores.setStyle("-fx-font-size: 10px;");
+            getChildren().addAll(marco, matriz, lblEstado, lblValores);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package edu.ai.misioneros.vista;
 
+import edu.ai.misioneros.busqueda.CacheSoluciones;
+import edu.ai.misioneros.modelo.EstadisticasBusqueda;
 import edu.ai.misioneros.modelo.Nodo;
 import edu.ai.misioneros.modelo.ResultadoBusqueda;
 import javafx.application.Platform;
@@ -23,6 +25,9 @@ public class PanelInformacion extends VBox {
     private final TextArea areaDetallesAStar = new TextArea();
     private final Label lblTimerDFS = new Label("Voraz: No ejecutado");
     private final Label lblTimerAStar = new Label("A*: No ejecutado");
+    private final Label lblCache = new Label("Caché: -");
+
+    private static final int MAX_PROFUNDIDADES_HISTOGRAMA = 40;
 
     private AtomicLong tiempoDFS = new AtomicLong(0);
     private AtomicLong tiempoAStar = new AtomicLong(0);
@@ -42,7 +47,9 @@ public class PanelInformacion extends VBox {
         lblTimerDFS.setStyle("-fx-font-weight: bold; -fx-font-size: 12px; -fx-text-fill: #1f2937;");
         lblTimerAStar.setStyle("-fx-font-weight: bold; -fx-font-size: 12px; -fx-text-fill: #1f2937;");
 
-        HBox timers = new HBox(20, lblTimerDFS, lblTimerAStar);
+        lblCache.setStyle("-fx-font-size: 12px; -fx-text-fill: #4b5563;");
+
+        HBox timers = new HBox(20, lblTimerDFS, lblTimerAStar, lblCache);
         timers.setPadding(new Insets(5, 0, 5, 0));
 
         HBox headers = new HBox(20, lblEstadoActualDFS, lblEstadoActualAStar);
@@ -94,6 +101,12 @@ public class PanelInformacion extends VBox {
                 () -> lblTimerAStar.setText("A*: " + String.format("%.2f ms (%d ns)", tiempo / 1_000_000.0, tiempo)));
     }
 
+    /** Aciertos y fallos acumulados de la caché; se llama en el hilo de JavaFX. */
+    public void actualizarCache(CacheSoluciones cache) {
+        lblCache.setText("Caché: " + cache.getAciertos() + " aciertos, " + cache.getFallos() + " fallos, "
+                + cache.getEntradas() + " entradas");
+    }
+
     private String buildDetallesVoraz(ResultadoBusqueda r) {
         if (r == null)
             return "";
@@ -124,12 +137,7 @@ public class PanelInformacion extends VBox {
             sb.append("- Lado izquierdo: " + (izqOk ? "válido ✓" : "inválido ✗") + " (" + M + " >= " + C + ")\n");
             sb.append("- Lado derecho: " + (derOk ? "válido ✓" : "inválido ✗") + " (" + mR + " >= " + cR + ")\n\n");
         }
-        sb.append("Estadísticas\n");
-        sb.append("- Nodos explorados: " + r.getNodosExplorados() + "\n");
-        sb.append("- Nodos en frontera (ABIERTOS): " + r.getNodosAbiertos() + "\n");
-        sb.append("- Nodos visitados (CERRADOS): " + r.getNodosCerrados() + "\n");
-        sb.append("- Longitud de la solución: " + r.getCaminoSolucion().size() + " pasos\n");
-        sb.append("- Tiempo de ejecución: " + r.getTiempoMs() + " ms\n");
+        agregarEstadisticas(sb, r);
         return sb.toString();
     }
     
@@ -142,9 +150,10 @@ public class PanelInformacion extends VBox {
             Nodo n = r.getCaminoSolucion().get(r.getCaminoSolucion().size() - 1);
             int M = n.getEstado().getMisionerosIzquierda();
             int C = n.getEstado().getCanibalesIzquierda();
-            int h = 6 - 2 * M - 2 * C;
+            int N = n.getEstado().getTotal();
+            int h = 2 * N - 2 * M - 2 * C;
             int g = n.getNivel();
-            int mL = M, cL = C, mR = 3 - M, cR = 3 - C;
+            int mL = M, cL = C, mR = N - M, cR = N - C;
             boolean izqOk = (mL == 0) || (mL >= cL);
             boolean derOk = (mR == 0) || (mR >= cR);
             int pen = 0;
@@ -153,7 +162,7 @@ public class PanelInformacion extends VBox {
             if (mR > cR && mR > 0)
                 pen -= 1000;
             int FH = h + g + pen;
-            sb.append("h = 6 - 2×" + M + " - 2×" + C + " = " + h + "\n");
+            sb.append("h = 2×" + N + " - 2×" + M + " - 2×" + C + " = " + h + "\n");
             sb.append("g = nivel del nodo = " + g + "\n");
             sb.append("Penalizaciones:\n");
             sb.append("- Lado izquierdo: " + (izqOk ? "válido ✓" : "inválido ✗") + "\n");
@@ -161,12 +170,38 @@ public class PanelInformacion extends VBox {
             sb.append("- Penalización total = " + pen + "\n\n");
             sb.append("FH = h + g + penalizaciones = " + FH + "\n\n");
         }
-        sb.append("Estadísticas\n");
-        sb.append("- Nodos explorados: " + r.getNodosExplorados() + "\n");
-        sb.append("- Nodos en frontera (ABIERTOS): " + r.getNodosAbiertos() + "\n");
-        sb.append("- Nodos visitados (CERRADOS): " + r.getNodosCerrados() + "\n");
-        sb.append("- Longitud de la solución: " + r.getCaminoSolucion().size() + " pasos\n");
-        sb.append("- Tiempo de ejecución: " + r.getTiempoMs() + " ms\n");
+        agregarEstadisticas(sb, r);
         return sb.toString();
     }
+
+    private void agregarEstadisticas(StringBuilder sb, ResultadoBusqueda r) {
+        EstadisticasBusqueda e = r.getEstadisticas();
+        sb.append("Estadísticas\n");
+        sb.append("- Nodos expandidos: " + e.getExpandidos() + "\n");
+        sb.append("- Nodos generados: " + e.getGenerados() + " (válidos: " + e.getValidos() + ")\n");
+        sb.append("- Duplicados suprimidos: " + e.getDuplicados() + "\n");
+        sb.append("- Reaperturas: " + e.getReaperturas() + "\n");
+        sb.append("- Nodos en frontera (ABIERTOS): " + e.getAbiertos() + " (pico: " + e.getPicoAbiertos() + ")\n");
+        sb.append("- Nodos visitados (CERRADOS): " + e.getCerrados() + "\n");
+        double b = e.getFactorRamificacion();
+        sb.append("- Factor de ramificación efectivo: " + (Double.isNaN(b) ? "-" : String.format("%.3f", b)) + "\n");
+        sb.append("- Longitud de la solución: " + r.getLongitudSolucion() + " pasos\n");
+        sb.append("- Tiempo de ejecución: " + String.format("%.3f ms", r.getTiempoNs() / 1_000_000.0) + "\n");
+        sb.append("- Tiempo de CPU: " + (e.getTiempoCpuNs() < 0 ? "no disponible"
+                : String.format("%.3f ms", e.getTiempoCpuNs() / 1_000_000.0)) + "\n");
+        sb.append("- Memoria asignada: " + (e.getBytesAsignados() < 0 ? "no disponible"
+                : String.format("%.1f KB", e.getBytesAsignados() / 1024.0)) + "\n");
+
+        // Histograma: expandidos por profundidad, en una línea
+        long[] porProfundidad = e.getExpandidosPorProfundidad();
+        if (porProfundidad.length > 0) {
+            sb.append("- Expandidos por profundidad:");
+            int mostrar = Math.min(porProfundidad.length, MAX_PROFUNDIDADES_HISTOGRAMA);
+            for (int d = 0; d < mostrar; d++)
+                sb.append(' ').append(d).append(':').append(porProfundidad[d]);
+            if (mostrar < porProfundidad.length)
+                sb.append(" ... (" + porProfundidad.length + " niveles)");
+            sb.append('\n');
+        }
+    }
 }
@@ -2,7 +2,9 @@ package edu.ai.misioneros.vista;
 
 import edu.ai.misioneros.modelo.Estado;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
@@ -10,12 +12,16 @@ import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 
 /**
- * Componente que dibuja una matriz EXACTA de 3 filas x 5 columnas
+ * Componente que dibuja una matriz de N filas x 5 columnas (3 en el problema clásico)
  * Columnas: [MisL][CanL][Río][MisR][CanR]
+ * Con más de FILAS_MAX personas por bando la matriz no cabe en el nodo del
+ * árbol (PanelArbol.NODE_HEIGHT): se dibuja un resumen del mismo tamaño que
+ * la matriz de FILAS_MAX filas, con un ícono y la cantidad de cada columna.
  */
 public class PanelMatriz extends Pane {
     private static final double CELL_SIZE = 40; // 35-45px recomendado
     private static final double CELL_GAP = 2;
+    private static final int FILAS_MAX = 3; // las que caben en el nodo del árbol
     private final GridPane grid = new GridPane();
     private Estado estado;
 
@@ -25,7 +31,6 @@ public class PanelMatriz extends Pane {
         grid.setVgap(CELL_GAP);
         grid.setPadding(new Insets(4));
         getChildren().add(grid);
-        setPrefSize(CELL_SIZE * 5 + CELL_GAP * 6, CELL_SIZE * 3 + CELL_GAP * 6);
         dibujar();
     }
 
@@ -35,13 +40,20 @@ public class PanelMatriz extends Pane {
     }
 
     private void dibujar() {
+        // El alto depende de N: se ajusta también al reutilizar la matriz con otro estado
+        int filas = Math.min(estado.getTotal(), FILAS_MAX);
+        setPrefSize(CELL_SIZE * 5 + CELL_GAP * 6, CELL_SIZE * filas + CELL_GAP * 6);
         grid.getChildren().clear();
+        if (estado.getTotal() > FILAS_MAX) {
+            dibujarResumen();
+            return;
+        }
         int M = estado.getMisionerosIzquierda();
         int C = estado.getCanibalesIzquierda();
-        int MR = 3 - M;
-        int CR = 3 - C;
+        int MR = estado.getMisionerosDerecha();
+        int CR = estado.getCanibalesDerecha();
 
-        for (int fila = 0; fila < 3; fila++) {
+        for (int fila = 0; fila < estado.getTotal(); fila++) {
             // Columna 0: Misioneros izquierda
             grid.add(celdaMisionero(fila < M), 0, fila);
             // Columna 1: Caníbales izquierda
@@ -55,6 +67,32 @@ public class PanelMatriz extends Pane {
         }
     }
 
+    /** Una fila de íconos y debajo la cantidad de cada columna. */
+    private void dibujarResumen() {
+        int[] cantidades = {
+            estado.getMisionerosIzquierda(), estado.getCanibalesIzquierda(), 0,
+            estado.getMisionerosDerecha(), estado.getCanibalesDerecha()
+        };
+        grid.add(celdaMisionero(cantidades[0] > 0), 0, 0);
+        grid.add(celdaCanibal(cantidades[1] > 0), 1, 0);
+        grid.add(celdaMisionero(cantidades[3] > 0), 3, 0);
+        grid.add(celdaCanibal(cantidades[4] > 0), 4, 0);
+        for (int fila = 0; fila < FILAS_MAX - 1; fila++)
+            grid.add(celdaRio(), 2, fila);
+        for (int col = 0; col < 5; col++) {
+            if (col != 2)
+                grid.add(celdaCantidad(cantidades[col]), col, 1);
+        }
+    }
+
+    private Node celdaCantidad(int cantidad) {
+        Label lbl = new Label(String.valueOf(cantidad));
+        lbl.setPrefSize(CELL_SIZE, CELL_SIZE);
+        lbl.setAlignment(Pos.CENTER);
+        lbl.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        return lbl;
+    }
+
     private Node celdaMisionero(boolean llena) {
         Rectangle base = baseCell();
         if (llena) {
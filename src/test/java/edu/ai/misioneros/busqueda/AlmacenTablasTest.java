@@ -0,0 +1,176 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.Problema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlmacenTablasTest {
+    private static final int N = 12;
+    private static final int K = 3;
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void restaurar() {
+        AlmacenTablas.setDirectorio(null);
+        GrafoEstados.limpiarCache();
+        OraculoDistancias.limpiarCache();
+    }
+
+    @Test
+    void grafoIdaYVuelta() throws IOException {
+        GrafoEstados original = GrafoEstados.para(new Problema(N, K));
+        Path archivo = AlmacenTablas.archivoGrafo(directorio, N, K);
+        AlmacenTablas.escribir(original, archivo);
+        GrafoEstados leido = AlmacenTablas.leerGrafo(archivo);
+
+        assertEquals(N, leido.getN());
+        assertEquals(K, leido.getCapacidad());
+        assertEquals(original.getNumeroFilas(), leido.getNumeroFilas());
+        assertEquals(original.getNumeroAristas(), leido.getNumeroAristas());
+        for (int fila = 0; fila < original.getNumeroFilas(); fila++) {
+            assertEquals(original.inicio(fila), leido.inicio(fila));
+            assertEquals(original.fin(fila), leido.fin(fila));
+        }
+        for (int a = 0; a < original.getNumeroAristas(); a++) {
+            assertEquals(original.destino(a), leido.destino(a));
+            assertEquals(original.movimiento(a), leido.movimiento(a));
+            assertEquals(original.esValida(a), leido.esValida(a));
+            assertEquals(original.esObjetivo(a), leido.esObjetivo(a));
+        }
+    }
+
+    @Test
+    void oraculoIdaYVuelta() throws IOException {
+        OraculoDistancias original = OraculoDistancias.para(new Problema(N, K));
+        Path archivo = AlmacenTablas.archivoOraculo(directorio, N, K);
+        AlmacenTablas.escribir(original, archivo);
+        OraculoDistancias leido = AlmacenTablas.leerOraculo(archivo);
+
+        assertEquals(N, leido.getN());
+        assertEquals(K, leido.getCapacidad());
+        for (int fila = 0; fila < GrafoEstados.numeroFilas(N); fila++) {
+            int codigo = GrafoEstados.codigoDeFila(N, fila);
+            assertEquals(original.distancia(codigo), leido.distancia(codigo));
+            assertEquals(original.movimientoOptimo(codigo), leido.movimientoOptimo(codigo));
+            assertEquals(original.siguienteEstado(codigo), leido.siguienteEstado(codigo));
+        }
+        int inicial = EstadoCodificado.codificar(N, N, 0);
+        assertArrayEquals(original.caminoOptimo(inicial), leido.caminoOptimo(inicial));
+    }
+
+    @Test
+    void rechazaUnArchivoConDatosAlterados() throws IOException {
+        Path archivo = AlmacenTablas.archivoOraculo(directorio, N, K);
+        AlmacenTablas.escribir(OraculoDistancias.para(new Problema(N, K)), archivo);
+        byte[] bytes = Files.readAllBytes(archivo);
+        bytes[AlmacenTablas.TAMANO_ENCABEZADO + 5] ^= 0x10;
+        Files.write(archivo, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> AlmacenTablas.leerOraculo(archivo));
+        assertTrue(e.getMessage().contains("verificación"), e.getMessage());
+    }
+
+    @Test
+    void rechazaArchivosTruncadosAjenosODeOtroTipo() throws IOException {
+        Path grafo = AlmacenTablas.archivoGrafo(directorio, N, K);
+        AlmacenTablas.escribir(GrafoEstados.para(new Problema(N, K)), grafo);
+        // Una tabla de estados no se abre como tabla de distancias
+        assertThrows(IOException.class, () -> AlmacenTablas.leerOraculo(grafo));
+
+        byte[] bytes = Files.readAllBytes(grafo);
+        Path truncado = directorio.resolve("truncado.tbl");
+        Files.write(truncado, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> AlmacenTablas.leerGrafo(truncado));
+
+        Path corto = directorio.resolve("corto.tbl");
+        Files.write(corto, Arrays.copyOf(bytes, AlmacenTablas.TAMANO_ENCABEZADO - 1));
+        assertThrows(IOException.class, () -> AlmacenTablas.leerGrafo(corto));
+
+        Path ajeno = directorio.resolve("ajeno.tbl");
+        Files.write(ajeno, new byte[bytes.length]);
+        assertThrows(IOException.class, () -> AlmacenTablas.leerGrafo(ajeno));
+    }
+
+    /** Con un directorio configurado, para() guarda la tabla y reescribe la que está dañada. */
+    @Test
+    void paraUsaElDirectorioYReconstruyeLoDanado() throws IOException {
+        Problema p = new Problema(N, K);
+        int[] esperado = OraculoDistancias.para(p).caminoOptimo(EstadoCodificado.codificar(N, N, 0));
+        OraculoDistancias.limpiarCache();
+
+        AlmacenTablas.setDirectorio(directorio);
+        Path archivo = AlmacenTablas.archivoOraculo(directorio, N, K);
+        OraculoDistancias.para(p);
+        assertTrue(Files.isRegularFile(archivo));
+
+        byte[] bytes = Files.readAllBytes(archivo);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(archivo, bytes);
+        OraculoDistancias.limpiarCache();
+        OraculoDistancias reconstruido = OraculoDistancias.para(p);
+        assertArrayEquals(esperado, reconstruido.caminoOptimo(EstadoCodificado.codificar(N, N, 0)));
+
+        // El archivo se reescribió y ahora se lee sin errores
+        OraculoDistancias leido = AlmacenTablas.leerOraculo(archivo);
+        assertNotSame(reconstruido, leido);
+        assertArrayEquals(esperado, leido.caminoOptimo(EstadoCodificado.codificar(N, N, 0)));
+    }
+
+    /** Los hilos que piden a la vez la misma tabla reciben la misma instancia y queda un solo archivo. */
+    @Test
+    void pedidosSimultaneosCompartenLaTabla() throws Exception {
+        AlmacenTablas.setDirectorio(directorio);
+        Problema p = new Problema(200, 5);
+        int hilos = 8;
+        CountDownLatch salida = new CountDownLatch(1);
+        Callable<GrafoEstados> pedir = () -> {
+            salida.await();
+            return GrafoEstados.para(p);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            Future<?>[] futuros = new Future<?>[hilos];
+            for (int i = 0; i < hilos; i++)
+                futuros[i] = pool.submit(pedir);
+            salida.countDown();
+            Object primera = futuros[0].get();
+            for (Future<?> f : futuros)
+                assertSame(primera, f.get());
+        } finally {
+            pool.shutdownNow();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertEquals(1, archivos.count());
+        }
+    }
+
+    @Test
+    void unaTablaDemasiadoGrandeSeRecuerdaComoAusente() {
+        Problema p = new Problema(EstadoCodificado.MAX_N, 20);
+        assertNull(GrafoEstados.para(p));
+        assertNull(GrafoEstados.para(p));
+    }
+}
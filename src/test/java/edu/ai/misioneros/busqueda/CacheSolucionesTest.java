@@ -0,0 +1,163 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.algoritmoAEstrellaParalelo.AlgoritmoAEstrellaParalelo;
+import edu.ai.misioneros.algoritmoBidireccional.AlgoritmoBidireccional;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheSolucionesTest {
+
+    /** Motor que cuenta cuántas veces se le pidió resolver. */
+    private static final class MotorContado implements MotorBusqueda {
+        private final MotorBusqueda motor = new AlgoritmoBidireccional();
+        final AtomicInteger llamadas = new AtomicInteger();
+
+        @Override
+        public String getNombre() {
+            return motor.getNombre();
+        }
+
+        @Override
+        public ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
+            llamadas.incrementAndGet();
+            return motor.resolver(problema, opciones);
+        }
+    }
+
+    @Test
+    void laSegundaConsultaEsUnAcierto() {
+        CacheSoluciones cache = CacheSoluciones.porEntradas(4);
+        MotorContado motor = new MotorContado();
+        Problema p = new Problema(3, 2);
+
+        CacheSoluciones.Consulta primera = cache.consultar(motor, p, new OpcionesBusqueda());
+        CacheSoluciones.Consulta segunda = cache.consultar(motor, new Problema(3, 2), new OpcionesBusqueda());
+
+        assertEquals(CacheSoluciones.Origen.FALLO, primera.getOrigen());
+        assertEquals(CacheSoluciones.Origen.ACIERTO, segunda.getOrigen());
+        assertSame(primera.getResultado(), segunda.getResultado());
+        assertEquals(1, motor.llamadas.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(1, cache.getEntradas());
+    }
+
+    @Test
+    void lasOpcionesQueCambianElResultadoSonParteDeLaClave() {
+        CacheSoluciones cache = CacheSoluciones.porEntradas(8);
+        MotorContado motor = new MotorContado();
+        Problema p = new Problema(3, 2);
+        OpcionesBusqueda soloCamino = new OpcionesBusqueda();
+        soloCamino.setModoRetencion(ModoRetencion.SOLO_CAMINO);
+
+        ResultadoBusqueda completo = cache.resolver(motor, p, new OpcionesBusqueda());
+        ResultadoBusqueda camino = cache.resolver(motor, p, soloCamino);
+        cache.resolver(motor, new Problema(3, 3), new OpcionesBusqueda());
+
+        assertNotSame(completo, camino);
+        assertEquals(3, motor.llamadas.get());
+        assertEquals(3, cache.getEntradas());
+    }
+
+    @Test
+    void laConfiguracionDelMotorEsParteDeLaClave() {
+        CacheSoluciones cache = CacheSoluciones.porEntradas(8);
+        AlgoritmoAEstrellaParalelo unHilo = new AlgoritmoAEstrellaParalelo();
+        unHilo.setHilos(1);
+        AlgoritmoAEstrellaParalelo dosHilos = new AlgoritmoAEstrellaParalelo();
+        dosHilos.setHilos(2);
+        AlgoritmoAEstrellaParalelo otroDeDos = new AlgoritmoAEstrellaParalelo();
+        otroDeDos.setHilos(2);
+        Problema p = new Problema(10, 3);
+
+        CacheSoluciones.Consulta primera = cache.consultar(unHilo, p, new OpcionesBusqueda());
+        CacheSoluciones.Consulta segunda = cache.consultar(dosHilos, p, new OpcionesBusqueda());
+        CacheSoluciones.Consulta tercera = cache.consultar(otroDeDos, p, new OpcionesBusqueda());
+
+        assertEquals(CacheSoluciones.Origen.FALLO, primera.getOrigen());
+        assertEquals(CacheSoluciones.Origen.FALLO, segunda.getOrigen());
+        assertNotSame(primera.getResultado(), segunda.getResultado());
+        assertEquals(CacheSoluciones.Origen.ACIERTO, tercera.getOrigen());
+        assertSame(segunda.getResultado(), tercera.getResultado());
+        assertEquals(2, cache.getEntradas());
+    }
+
+    @Test
+    void unaHeuristicaPropiaNoPasaPorLaCache() {
+        CacheSoluciones cache = CacheSoluciones.porEntradas(4);
+        MotorContado motor = new MotorContado();
+        Problema p = new Problema(3, 2);
+        OpcionesBusqueda opciones = new OpcionesBusqueda();
+        opciones.setHeuristica(new CotaViajes(2));
+
+        cache.consultar(motor, p, opciones);
+        assertEquals(CacheSoluciones.Origen.FALLO, cache.consultar(motor, p, opciones).getOrigen());
+        assertEquals(2, motor.llamadas.get());
+        assertEquals(0, cache.getEntradas());
+    }
+
+    @Test
+    void desalojaLoMenosUsadoRecientemente() {
+        CacheSoluciones cache = CacheSoluciones.porEntradas(2);
+        MotorContado motor = new MotorContado();
+        Problema a = new Problema(3, 2);
+        Problema b = new Problema(4, 3);
+        Problema c = new Problema(5, 3);
+
+        cache.resolver(motor, a, new OpcionesBusqueda());
+        cache.resolver(motor, b, new OpcionesBusqueda());
+        cache.resolver(motor, a, new OpcionesBusqueda()); // a pasa a ser el más reciente
+        cache.resolver(motor, c, new OpcionesBusqueda()); // desaloja b
+        assertEquals(1, cache.getDesalojos());
+        assertEquals(2, cache.getEntradas());
+
+        assertEquals(CacheSoluciones.Origen.ACIERTO, cache.consultar(motor, a, new OpcionesBusqueda()).getOrigen());
+        assertEquals(CacheSoluciones.Origen.FALLO, cache.consultar(motor, b, new OpcionesBusqueda()).getOrigen());
+    }
+
+    @Test
+    void porNodosPesaLosNodosRetenidos() {
+        CacheSoluciones cache = CacheSoluciones.porNodos(1_000_000);
+        MotorContado motor = new MotorContado();
+        Problema p = new Problema(3, 2);
+        OpcionesBusqueda soloCamino = new OpcionesBusqueda();
+        soloCamino.setModoRetencion(ModoRetencion.SOLO_CAMINO);
+
+        ResultadoBusqueda completo = cache.resolver(motor, p, new OpcionesBusqueda());
+        assertEquals(1 + completo.getEstadisticas().getGenerados(), cache.getPeso());
+        ResultadoBusqueda camino = cache.resolver(motor, p, soloCamino);
+        assertEquals(1 + completo.getEstadisticas().getGenerados() + 1 + camino.getLongitudSolucion(),
+                cache.getPeso());
+
+        cache.limpiar();
+        assertEquals(0, cache.getPeso());
+        assertEquals(0, cache.getEntradas());
+    }
+
+    @Test
+    void noGuardaUnResultadoMasPesadoQueElMaximo() {
+        CacheSoluciones cache = CacheSoluciones.porNodos(3);
+        MotorContado motor = new MotorContado();
+        Problema p = new Problema(3, 2);
+
+        cache.resolver(motor, p, new OpcionesBusqueda());
+        cache.resolver(motor, p, new OpcionesBusqueda());
+        assertEquals(2, motor.llamadas.get());
+        assertEquals(0, cache.getEntradas());
+    }
+
+    @Test
+    void elPesoMaximoDebeSerPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> CacheSoluciones.porEntradas(0));
+        assertThrows(IllegalArgumentException.class, () -> CacheSoluciones.porNodos(-1));
+    }
+}
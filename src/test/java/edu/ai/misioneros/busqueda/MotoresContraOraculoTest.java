@@ -0,0 +1,160 @@
+package edu.ai.misioneros.busqueda;
+
+import edu.ai.misioneros.algoritmoAEstrellaParalelo.AlgoritmoAEstrellaParalelo;
+import edu.ai.misioneros.algoritmoAestrella.AlgoritmoAEstrella;
+import edu.ai.misioneros.algoritmoBidireccional.AlgoritmoBidireccional;
+import edu.ai.misioneros.algoritmoIDAEstrella.AlgoritmoIDAEstrella;
+import edu.ai.misioneros.logicaVoraz.AlgoritmoVoraz;
+import edu.ai.misioneros.modelo.Estado;
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import edu.ai.misioneros.modelo.ModoRetencion;
+import edu.ai.misioneros.modelo.Nodo;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compara la longitud del camino de cada motor con la distancia exacta de
+ * OraculoDistancias en una rejilla de (N, K), y comprueba que cada camino
+ * sea una secuencia válida de movimientos del inicial al objetivo.
+ * Los motores óptimos deben dar exactamente la distancia; A* con su
+ * configuración por defecto (f máximo, heurística no admisible) y el voraz
+ * solo deben coincidir en si hay solución y no bajar del óptimo.
+ */
+class MotoresContraOraculoTest {
+    private static final int MAX_N = 30;
+    private static final int MAX_K = 6;
+
+    /** Motores que deben dar siempre un camino de longitud óptima. */
+    enum Optimo {
+        BIDIRECCIONAL(p -> new AlgoritmoBidireccional().resolver(p, soloCamino())),
+        IDA_ESTRELLA(p -> new AlgoritmoIDAEstrella().resolver(p, soloCamino())),
+        A_ESTRELLA_ADMISIBLE(p -> {
+            OpcionesBusqueda o = soloCamino();
+            o.setExtraerMaximo(false);
+            o.setHeuristica(new CotaViajes(p.getCapacidad()));
+            return new AlgoritmoAEstrella().resolver(p, o);
+        }),
+        HDA_ESTRELLA_1_HILO(p -> hda(1).resolver(p, soloCamino())),
+        HDA_ESTRELLA_2_HILOS(p -> hda(2).resolver(p, soloCamino())),
+        HDA_ESTRELLA_4_HILOS(p -> hda(4).resolver(p, soloCamino()));
+
+        final Function<Problema, ResultadoBusqueda> resolver;
+
+        Optimo(Function<Problema, ResultadoBusqueda> resolver) {
+            this.resolver = resolver;
+        }
+    }
+
+    /** Motores que solo garantizan encontrar un camino si lo hay. */
+    enum Completo {
+        A_ESTRELLA(p -> new AlgoritmoAEstrella().resolver(p, soloCamino())),
+        VORAZ(p -> new AlgoritmoVoraz().resolver(p, soloCamino()));
+
+        final Function<Problema, ResultadoBusqueda> resolver;
+
+        Completo(Function<Problema, ResultadoBusqueda> resolver) {
+            this.resolver = resolver;
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Optimo.class)
+    void motoresOptimosDanLaDistanciaExacta(Optimo motor) {
+        for (int n = 1; n <= MAX_N; n++) {
+            for (int k = 1; k <= MAX_K; k++) {
+                Problema p = new Problema(n, k);
+                ResultadoBusqueda r = motor.resolver.apply(p);
+                assertEquals(longitudOptima(p), r.getLongitudSolucion(), motor + " en " + p);
+                validarCamino(p, r);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Completo.class)
+    void motoresNoOptimosEncuentranUnCaminoValido(Completo motor) {
+        for (int n = 1; n <= MAX_N; n++) {
+            for (int k = 1; k <= MAX_K; k++) {
+                Problema p = new Problema(n, k);
+                ResultadoBusqueda r = motor.resolver.apply(p);
+                int optima = longitudOptima(p);
+                if (optima == 0)
+                    assertEquals(0, r.getLongitudSolucion(), motor + " en " + p);
+                else
+                    assertTrue(r.getLongitudSolucion() >= optima, motor + " mejora al óptimo en " + p);
+                validarCamino(p, r);
+            }
+        }
+    }
+
+    /** Desde estados iniciales intermedios, no solo desde (N, N, 0). */
+    @Test
+    void bidireccionalEsOptimoDesdeCualquierEstado() {
+        int n = 8;
+        for (int k = 1; k <= 4; k++) {
+            for (int m = 0; m <= n; m++) {
+                for (int c = 0; c <= n; c++) {
+                    for (int lado = 0; lado <= 1; lado++) {
+                        Estado inicial = new Estado(m, c, lado, n);
+                        if (!inicial.esValido())
+                            continue;
+                        Problema p = new Problema(n, k, inicial);
+                        ResultadoBusqueda r = new AlgoritmoBidireccional().resolver(p, soloCamino());
+                        assertEquals(longitudOptima(p), r.getLongitudSolucion(), "desde " + inicial + " en " + p);
+                        validarCamino(p, r);
+                    }
+                }
+            }
+        }
+    }
+
+    private static MotorBusqueda hda(int hilos) {
+        AlgoritmoAEstrellaParalelo motor = new AlgoritmoAEstrellaParalelo();
+        motor.setHilos(hilos);
+        return motor;
+    }
+
+    private static OpcionesBusqueda soloCamino() {
+        OpcionesBusqueda o = new OpcionesBusqueda();
+        o.setModoRetencion(ModoRetencion.SOLO_CAMINO);
+        return o;
+    }
+
+    /** Nodos del camino óptimo (viajes + 1), o 0 si no hay solución. */
+    static int longitudOptima(Problema p) {
+        int d = OraculoDistancias.para(p).distancia(EstadoCodificado.codificar(p.getInicial()));
+        return d == OraculoDistancias.INALCANZABLE ? 0 : d + 1;
+    }
+
+    /** Del inicial al objetivo, cada paso un movimiento permitido hacia un estado válido. */
+    static void validarCamino(Problema p, ResultadoBusqueda r) {
+        List<Nodo> camino = r.getCaminoSolucion();
+        assertEquals(r.getLongitudSolucion(), camino.size(), "longitud declarada en " + p);
+        if (camino.isEmpty())
+            return;
+        Estado anterior = camino.get(0).getEstado();
+        assertEquals(p.getInicial(), anterior, "inicio del camino en " + p);
+        for (int i = 1; i < camino.size(); i++) {
+            Estado e = camino.get(i).getEstado();
+            // Con la lancha a la izquierda la gente pasa a la derecha, y al revés
+            int sentido = anterior.getLanchaLado() == 0 ? 1 : -1;
+            int dm = sentido * (anterior.getMisionerosIzquierda() - e.getMisionerosIzquierda());
+            int dc = sentido * (anterior.getCanibalesIzquierda() - e.getCanibalesIzquierda());
+            if (!e.esValido() || anterior.getLanchaLado() == e.getLanchaLado()
+                    || dm < 0 || dc < 0 || dm + dc < 1 || dm + dc > p.getCapacidad())
+                fail("Paso imposible " + anterior + " -> " + e + " en " + p);
+            anterior = e;
+        }
+        assertTrue(anterior.esObjetivo(), "el camino no termina en el objetivo en " + p);
+    }
+}
@@ -0,0 +1,193 @@
+package edu.ai.misioneros.estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColaBucketsTest {
+
+    @Test
+    void extraeElMenorF() {
+        ColaBuckets cola = new ColaBuckets(false);
+        cola.insertar(0, 7, 0);
+        cola.insertar(1, 3, 0);
+        cola.insertar(2, 5, 0);
+        cola.insertar(3, 1, 0);
+        assertEquals(1, cola.verMejorF());
+        assertEquals(3, cola.extraer());
+        assertEquals(1, cola.extraer());
+        assertEquals(2, cola.extraer());
+        assertEquals(0, cola.extraer());
+        assertTrue(cola.estaVacia());
+    }
+
+    @Test
+    void extraeElMayorF() {
+        ColaBuckets cola = new ColaBuckets(true);
+        cola.insertar(0, 7, 0);
+        cola.insertar(1, 3, 0);
+        cola.insertar(2, 12, 0);
+        assertEquals(12, cola.verMejorF());
+        assertEquals(2, cola.extraer());
+        assertEquals(0, cola.extraer());
+        assertEquals(1, cola.extraer());
+    }
+
+    /** La base la fija la primera inserción; los f por debajo de ella también caben. */
+    @Test
+    void aceptaFMenoresQueElPrimero() {
+        ColaBuckets cola = new ColaBuckets(false);
+        cola.insertar(0, 100, 0);
+        cola.insertar(1, 2, 0);
+        cola.insertar(2, 300, 0);
+        assertEquals(1, cola.extraer());
+        assertEquals(0, cola.extraer());
+        assertEquals(2, cola.extraer());
+    }
+
+    @Test
+    void aIgualFSaleElMayorGYDespuesElUltimo() {
+        ColaBuckets cola = new ColaBuckets(false);
+        cola.insertar(0, 5, 1);
+        cola.insertar(1, 5, 4);
+        cola.insertar(2, 5, 2);
+        cola.insertar(3, 5, 4);
+        assertEquals(3, cola.extraer());
+        assertEquals(1, cola.extraer());
+        assertEquals(2, cola.extraer());
+        assertEquals(0, cola.extraer());
+    }
+
+    @Test
+    void eliminarConservaElOrdenDeLlegada() {
+        ColaBuckets cola = new ColaBuckets(false);
+        for (int id = 0; id < 5; id++)
+            cola.insertar(id, 5, 1);
+        assertTrue(cola.eliminar(0));
+        assertTrue(cola.eliminar(3));
+        assertEquals(4, cola.extraer());
+        assertEquals(2, cola.extraer());
+        assertEquals(1, cola.extraer());
+    }
+
+    @Test
+    void actualizarVuelveAEntrarComoElUltimo() {
+        ColaBuckets cola = new ColaBuckets(false);
+        cola.insertar(0, 5, 1);
+        cola.insertar(1, 5, 1);
+        cola.insertar(2, 5, 1);
+        cola.insertar(3, 9, 1);
+        cola.actualizar(3, 5, 1);
+        cola.actualizar(1, 5, 1);
+        assertEquals(1, cola.extraer());
+        assertEquals(3, cola.extraer());
+        assertEquals(2, cola.extraer());
+        assertEquals(0, cola.extraer());
+    }
+
+    @Test
+    void actualizarCambiaLaPrioridad() {
+        ColaBuckets cola = new ColaBuckets(false);
+        cola.insertar(0, 9, 0);
+        cola.insertar(1, 6, 0);
+        cola.insertar(2, 8, 0);
+        cola.actualizar(0, 4, 3);
+        assertEquals(3, cola.tamano());
+        assertEquals(4, cola.verMejorF());
+        assertEquals(0, cola.extraer());
+        cola.actualizar(2, 5, 0);
+        assertEquals(2, cola.extraer());
+        assertEquals(1, cola.extraer());
+        assertTrue(cola.estaVacia());
+    }
+
+    @Test
+    void eliminarQuitaSoloEseId() {
+        ColaBuckets cola = new ColaBuckets(false);
+        for (int id = 0; id < 4; id++)
+            cola.insertar(id, 2, 0);
+        assertTrue(cola.eliminar(1));
+        assertFalse(cola.eliminar(1));
+        assertFalse(cola.contiene(1));
+        assertFalse(cola.eliminar(99));
+        assertEquals(3, cola.tamano());
+        boolean[] vistos = new boolean[4];
+        while (!cola.estaVacia())
+            vistos[cola.extraer()] = true;
+        assertTrue(vistos[0] && !vistos[1] && vistos[2] && vistos[3]);
+        cola.insertar(1, 0, 0);
+        assertEquals(1, cola.extraer());
+    }
+
+    @Test
+    void erroresDeUso() {
+        ColaBuckets cola = new ColaBuckets(false);
+        assertThrows(IllegalStateException.class, cola::extraer);
+        assertThrows(IllegalStateException.class, cola::verMejorF);
+        assertThrows(IllegalArgumentException.class, () -> cola.actualizar(0, 1, 0));
+        cola.insertar(0, 1, 0);
+        assertThrows(IllegalArgumentException.class, () -> cola.insertar(0, 2, 0));
+    }
+
+    @Test
+    void limpiarPermiteReusarla() {
+        ColaBuckets cola = new ColaBuckets(true);
+        cola.insertar(0, 10, 0);
+        cola.insertar(1, 20, 0);
+        cola.limpiar();
+        assertTrue(cola.estaVacia());
+        assertFalse(cola.contiene(0));
+        cola.insertar(0, 1000, 0);
+        cola.insertar(1, 3, 0);
+        assertEquals(0, cola.extraer());
+        assertEquals(1, cola.extraer());
+    }
+
+    /** Contra una PriorityQueue que desempata por orden de llegada: cada extracción debe coincidir. */
+    @Test
+    void coincideConUnaColaDePrioridadEnOperacionesAlAzar() {
+        for (boolean maximo : new boolean[] {false, true}) {
+            Random r = new Random(maximo ? 11 : 12);
+            int ids = 500;
+            int[] f = new int[ids];
+            int[] g = new int[ids];
+            int[] llegada = new int[ids];
+            Comparator<Integer> orden = Comparator.comparingInt((Integer id) -> maximo ? -f[id] : f[id])
+                    .thenComparingInt(id -> -g[id])
+                    .thenComparingInt(id -> -llegada[id]);
+            PriorityQueue<Integer> esperada = new PriorityQueue<>(orden);
+            ColaBuckets cola = new ColaBuckets(maximo);
+            for (int paso = 0; paso < 50_000; paso++) {
+                int id = r.nextInt(ids);
+                int op = r.nextInt(4);
+                if (op == 0 && !esperada.isEmpty()) {
+                    int sacado = cola.extraer();
+                    assertEquals(esperada.poll().intValue(), sacado);
+                } else if (op == 1) {
+                    assertEquals(esperada.remove(id), cola.eliminar(id));
+                } else if (cola.contiene(id)) {
+                    esperada.remove(id);
+                    f[id] = r.nextInt(200);
+                    g[id] = r.nextInt(30);
+                    llegada[id] = paso;
+                    cola.actualizar(id, f[id], g[id]);
+                    esperada.add(id);
+                } else {
+                    f[id] = r.nextInt(200);
+                    g[id] = r.nextInt(30);
+                    llegada[id] = paso;
+                    cola.insertar(id, f[id], g[id]);
+                    esperada.add(id);
+                }
+                assertEquals(esperada.size(), cola.tamano());
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package edu.ai.misioneros.estructuras;
+
+import edu.ai.misioneros.modelo.EstadoCodificado;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapaEstadosHashTest {
+    /** Capacidad de new MapaEstadosHash(8): 32 posiciones, crece al pasar de 16 claves. */
+    private static final int POSICIONES = 32;
+
+    @Test
+    void poneObtieneYReemplaza() {
+        MapaEstados m = new MapaEstadosHash();
+        assertEquals(MapaEstados.AUSENTE, m.obtener(7));
+        assertFalse(m.contiene(7));
+        m.poner(7, 3);
+        m.poner(EstadoCodificado.OBJETIVO, 0);
+        assertEquals(3, m.obtener(7));
+        assertEquals(0, m.obtener(EstadoCodificado.OBJETIVO));
+        m.poner(7, 5);
+        assertEquals(5, m.obtener(7));
+        assertEquals(2, m.tamano());
+    }
+
+    @Test
+    void eliminarYLimpiar() {
+        MapaEstados m = new MapaEstadosHash();
+        m.poner(10, 1);
+        m.poner(20, 2);
+        assertTrue(m.eliminar(10));
+        assertFalse(m.eliminar(10));
+        assertFalse(m.contiene(10));
+        assertEquals(2, m.obtener(20));
+        assertEquals(1, m.tamano());
+        m.limpiar();
+        assertEquals(0, m.tamano());
+        assertFalse(m.contiene(20));
+    }
+
+    /**
+     * Claves cuya posición ideal es la última: ocupan la última posición y
+     * siguen, por sondeo lineal, en las primeras. Al borrar, el
+     * desplazamiento hacia atrás tiene que cruzar el final del arreglo.
+     */
+    @Test
+    void sondeoYBorradoDanLaVueltaAlArreglo() {
+        List<Integer> claves = clavesConPosicion(POSICIONES - 1, 4);
+        MapaEstados m = new MapaEstadosHash(8);
+        for (int i = 0; i < claves.size(); i++)
+            m.poner(claves.get(i), i);
+        for (int i = 0; i < claves.size(); i++)
+            assertEquals(i, m.obtener(claves.get(i)));
+
+        assertTrue(m.eliminar(claves.get(0)));
+        assertFalse(m.contiene(claves.get(0)));
+        for (int i = 1; i < claves.size(); i++)
+            assertEquals(i, m.obtener(claves.get(i)), "clave " + i + " perdida al borrar");
+
+        assertTrue(m.eliminar(claves.get(2)));
+        assertEquals(1, m.obtener(claves.get(1)));
+        assertEquals(3, m.obtener(claves.get(3)));
+        m.poner(claves.get(0), 9);
+        assertEquals(9, m.obtener(claves.get(0)));
+        assertEquals(3, m.tamano());
+    }
+
+    @Test
+    void coincideConHashMapEnOperacionesAlAzar() {
+        Random r = new Random(42);
+        MapaEstados m = new MapaEstadosHash(4);
+        Map<Integer, Integer> esperado = new HashMap<>();
+        for (int paso = 0; paso < 200_000; paso++) {
+            // Pocas claves distintas para que haya muchas colisiones, borrados y reinserciones
+            int clave = EstadoCodificado.codificar(r.nextInt(64), r.nextInt(64), r.nextInt(2));
+            if (r.nextInt(3) == 0) {
+                assertEquals(esperado.remove(clave) != null, m.eliminar(clave));
+            } else {
+                int valor = r.nextInt(1000);
+                esperado.put(clave, valor);
+                m.poner(clave, valor);
+            }
+            if (paso % 1000 == 0) {
+                assertEquals(esperado.size(), m.tamano());
+                for (Map.Entry<Integer, Integer> e : esperado.entrySet())
+                    assertEquals(e.getValue().intValue(), m.obtener(e.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void densoYHashSeComportanIgual() {
+        int n = 20;
+        MapaEstados denso = new MapaEstadosDenso(n);
+        MapaEstados hash = new MapaEstadosHash();
+        Random r = new Random(7);
+        for (int paso = 0; paso < 10_000; paso++) {
+            int clave = EstadoCodificado.codificar(r.nextInt(n + 1), r.nextInt(n + 1), r.nextInt(2));
+            if (r.nextBoolean()) {
+                assertEquals(denso.eliminar(clave), hash.eliminar(clave));
+            } else {
+                denso.poner(clave, paso);
+                hash.poner(clave, paso);
+            }
+            assertEquals(denso.obtener(clave), hash.obtener(clave));
+            assertEquals(denso.tamano(), hash.tamano());
+        }
+    }
+
+    /** Códigos de estado válidos cuyo hash cae en la posición dada de una tabla de POSICIONES. */
+    private static List<Integer> clavesConPosicion(int posicion, int cuantas) {
+        List<Integer> claves = new ArrayList<>();
+        for (int m = 0; claves.size() < cuantas; m++) {
+            for (int c = 0; c <= m && claves.size() < cuantas; c++) {
+                int codigo = EstadoCodificado.codificar(m, c, 0);
+                if ((mezclar(codigo) & (POSICIONES - 1)) == posicion)
+                    claves.add(codigo);
+            }
+        }
+        return claves;
+    }
+
+    /** El mismo fmix32 que MapaEstadosHash. */
+    private static int mezclar(int codigo) {
+        int h = codigo;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,264 @@
+package edu.ai.misioneros.lote;
+
+import edu.ai.misioneros.busqueda.AlmacenTablas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResolverLoteTest {
+    private static final Pattern LINEA = Pattern.compile("^\\{\"linea\":(\\d+),");
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void restaurar() {
+        AlmacenTablas.setDirectorio(null);
+    }
+
+    /** Código de salida, salida estándar y errores de una ejecución. */
+    private static final class Ejecucion {
+        final int codigo;
+        final String salida;
+        final String errores;
+
+        Ejecucion(int codigo, String salida, String errores) {
+            this.codigo = codigo;
+            this.salida = salida;
+            this.errores = errores;
+        }
+
+        List<String> lineas() {
+            return salida.isEmpty() ? new ArrayList<>() : Arrays.asList(salida.split("\n"));
+        }
+    }
+
+    private static Ejecucion ejecutar(String entrada, String... args) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ByteArrayOutputStream errores = new ByteArrayOutputStream();
+        int codigo = ResolverLote.ejecutar(args, new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)),
+                salida, new PrintStream(errores, true));
+        return new Ejecucion(codigo, salida.toString(StandardCharsets.UTF_8),
+                errores.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void resuelveCadaLineaEnJsonl() {
+        Ejecucion e = ejecutar("# comentario\n3 2\n\n5,3,Bidireccional\n4 2 Voraz 2 2 0\n", "--hilos", "1");
+        assertEquals(0, e.codigo, e.errores);
+        List<String> lineas = e.lineas();
+        assertEquals(3, lineas.size());
+
+        String clasico = lineas.get(0);
+        assertTrue(clasico.startsWith("{\"linea\":2,\"n\":3,\"k\":2,\"inicial\":[3,3,0],\"motor\":\"A*\","
+                + "\"estado\":\"RESUELTO\",\"movimientos\":11,\"camino\":[[3,3,0],"), clasico);
+        assertTrue(clasico.contains("[0,0,1]],\"expandidos\":"), clasico);
+        for (String campo : new String[] {"generados", "validos", "duplicados", "reaperturas", "picoAbiertos",
+                "cerrados", "factorRamificacion", "cpuNs", "bytesAsignados", "tiempoNs"})
+            assertTrue(clasico.contains("\"" + campo + "\":"), campo);
+        assertTrue(clasico.endsWith(",\"cache\":\"FALLO\"}"), clasico);
+
+        assertTrue(lineas.get(1).contains("\"linea\":4,\"n\":5,\"k\":3"), lineas.get(1));
+        assertTrue(lineas.get(1).contains("\"motor\":\"Bidireccional\",\"estado\":\"RESUELTO\",\"movimientos\":11"),
+                lineas.get(1));
+        assertTrue(lineas.get(2).contains("\"inicial\":[2,2,0],\"motor\":\"Voraz\""), lineas.get(2));
+        assertTrue(e.errores.contains("3 instancias"), e.errores);
+    }
+
+    @Test
+    void lasLineasRepetidasSonAciertosDeLaCache() {
+        Ejecucion e = ejecutar("6 3 IDA*\n6 3 IDA*\n", "--hilos", "1");
+        assertEquals(0, e.codigo, e.errores);
+        assertTrue(e.lineas().get(0).contains("\"estado\":\"SIN_SOLUCION\",\"movimientos\":-1,\"camino\":[]"),
+                e.lineas().get(0));
+        assertTrue(e.lineas().get(0).endsWith("\"cache\":\"FALLO\"}"), e.lineas().get(0));
+        assertTrue(e.lineas().get(1).endsWith("\"cache\":\"ACIERTO\"}"), e.lineas().get(1));
+
+        Ejecucion sinCache = ejecutar("6 3 IDA*\n6 3 IDA*\n", "--hilos", "1", "--cache", "0");
+        for (String linea : sinCache.lineas())
+            assertFalse(linea.contains("\"cache\""), linea);
+    }
+
+    @Test
+    void conVariosHilosConservaElOrdenDeLaEntrada() {
+        StringBuilder entrada = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            // Se alternan instancias lentas y rápidas para que terminen desordenadas
+            entrada.append(i % 4 == 0 ? (100 + i) + " 4 IDA*" : (i + 1) + " 2 Bidireccional").append('\n');
+        }
+        Ejecucion e = ejecutar(entrada.toString(), "--hilos", "4");
+        assertEquals(0, e.codigo, e.errores);
+        List<String> lineas = e.lineas();
+        assertEquals(40, lineas.size());
+        for (int i = 0; i < lineas.size(); i++) {
+            Matcher m = LINEA.matcher(lineas.get(i));
+            assertTrue(m.find(), lineas.get(i));
+            assertEquals(i + 1, Integer.parseInt(m.group(1)));
+        }
+    }
+
+    @Test
+    void unaLineaInvalidaDaErrorYCodigoUno() {
+        Ejecucion e = ejecutar("3 2\n3 2 Dijkstra\n3\n", "--hilos", "1");
+        assertEquals(1, e.codigo);
+        List<String> lineas = e.lineas();
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(1).startsWith("{\"linea\":2,\"estado\":\"ERROR\",\"movimientos\":-1,\"camino\":[],"
+                + "\"tiempoNs\":0,\"error\":\"Motor desconocido: Dijkstra"), lineas.get(1));
+        assertTrue(lineas.get(2).contains("\"error\":\"Se esperaba"), lineas.get(2));
+        assertTrue(e.errores.contains("2 con error"), e.errores);
+    }
+
+    @Test
+    void unPlazoVencidoDaCodigoUno() {
+        Ejecucion e = ejecutar("2000 4 IDA*\n", "--plazo", "50", "--hilos", "1");
+        assertEquals(1, e.codigo, e.errores);
+        String linea = e.lineas().get(0);
+        assertTrue(linea.contains("\"estado\":\"PLAZO_VENCIDO\",\"movimientos\":-1,\"camino\":[],\"tiempoNs\":"),
+                linea);
+        assertFalse(linea.contains("\"expandidos\""), linea);
+    }
+
+    @Test
+    void argumentosIncorrectosDanCodigoDos() {
+        String[][] casos = {
+                {"--hilos", "0"},
+                {"--hilos", "dos"},
+                {"--formato", "xml"},
+                {"--plazo"},
+                {"--desconocido"},
+        };
+        for (String[] args : casos) {
+            Ejecucion e = ejecutar("3 2\n", args);
+            assertEquals(2, e.codigo, String.join(" ", args));
+            assertTrue(e.salida.isEmpty(), String.join(" ", args));
+            assertTrue(e.errores.contains("Uso: ResolverLote"), e.errores);
+        }
+        Ejecucion e = ejecutar("", "--entrada", directorio.resolve("no-existe.txt").toString());
+        assertEquals(2, e.codigo);
+        assertTrue(e.errores.contains("Error de E/S"), e.errores);
+
+        Ejecucion ayuda = ejecutar("", "--ayuda");
+        assertEquals(0, ayuda.codigo);
+        assertTrue(ayuda.errores.contains("Uso: ResolverLote"));
+    }
+
+    @Test
+    void csvTieneSiempreLasMismasColumnas() {
+        Ejecucion e = ejecutar("3 2\n3 2 Dijkstra\n2000 4 IDA*\n6 3\n",
+                "--formato", "csv", "--hilos", "1", "--plazo", "1000");
+        assertEquals(1, e.codigo, e.errores);
+        List<String> lineas = e.lineas();
+        assertEquals(5, lineas.size());
+        List<String> encabezado = camposCsv(lineas.get(0));
+        assertEquals(21, encabezado.size());
+        for (String linea : lineas)
+            assertEquals(encabezado.size(), camposCsv(linea).size(), linea);
+
+        List<String> resuelta = camposCsv(lineas.get(1));
+        assertEquals(Arrays.asList("1", "3", "2", "3-3-0", "A*", "RESUELTO", "11"), resuelta.subList(0, 7));
+        assertTrue(resuelta.get(7).startsWith("3-3-0 ") && resuelta.get(7).endsWith(" 0-0-1"), resuelta.get(7));
+        assertEquals("FALLO", resuelta.get(encabezado.indexOf("cache")));
+
+        List<String> error = camposCsv(lineas.get(2));
+        assertEquals("ERROR", error.get(encabezado.indexOf("estado")));
+        assertEquals("", error.get(encabezado.indexOf("expandidos")));
+        assertEquals("", error.get(encabezado.indexOf("bytesAsignados")));
+        assertTrue(error.get(encabezado.indexOf("error")).startsWith("Motor desconocido: Dijkstra"));
+
+        List<String> vencida = camposCsv(lineas.get(3));
+        assertEquals("PLAZO_VENCIDO", vencida.get(encabezado.indexOf("estado")));
+        assertEquals("", vencida.get(encabezado.indexOf("cpuNs")));
+
+        assertEquals("SIN_SOLUCION", camposCsv(lineas.get(4)).get(encabezado.indexOf("estado")));
+    }
+
+    @Test
+    void leeYEscribeArchivosYFijaElDirectorioDeTablas() throws IOException {
+        Path entrada = directorio.resolve("entrada.txt");
+        Path salida = directorio.resolve("salida.jsonl");
+        Path tablas = directorio.resolve("tablas");
+        Files.createDirectories(tablas);
+        Files.write(entrada, "7 4 Bidireccional\n".getBytes(StandardCharsets.UTF_8));
+
+        Ejecucion e = ejecutar("", "--entrada", entrada.toString(), "--salida", salida.toString(),
+                "--tablas", tablas.toString(), "--hilos", "1");
+        assertEquals(0, e.codigo, e.errores);
+        assertTrue(e.salida.isEmpty());
+        List<String> escritas = Files.readAllLines(salida, StandardCharsets.UTF_8);
+        assertEquals(1, escritas.size());
+        assertTrue(escritas.get(0).contains("\"estado\":\"RESUELTO\""), escritas.get(0));
+        assertEquals(tablas, AlmacenTablas.getDirectorio());
+    }
+
+    /** En una JVM aparte, con -verbose:class: el lote no debe cargar JavaFX aunque esté en el classpath. */
+    @Test
+    void noCargaClasesDeJavaFx() throws Exception {
+        assertTrue(System.getProperty("java.class.path").contains("javafx"), "JavaFX no está en el classpath");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder pb = new ProcessBuilder(java, "-verbose:class", "-cp", System.getProperty("java.class.path"),
+                ResolverLote.class.getName(), "--hilos", "2");
+        pb.redirectErrorStream(true);
+        pb.redirectInput(ProcessBuilder.Redirect.PIPE);
+        Process proceso = pb.start();
+        proceso.getOutputStream().write("3 2\n5 3 HDA*\n10 4 IDA*\n".getBytes(StandardCharsets.UTF_8));
+        proceso.getOutputStream().close();
+        String salida;
+        try (InputStream in = proceso.getInputStream()) {
+            salida = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(0, proceso.waitFor());
+        assertTrue(salida.contains("\"estado\":\"RESUELTO\""), salida);
+        assertTrue(salida.contains("edu.ai.misioneros.lote.ResolverLote"), "sin -verbose:class");
+        for (String linea : salida.split("\n"))
+            assertFalse(linea.contains("javafx."), linea);
+    }
+
+    /** Campos de una línea CSV, con comillas dobles como en FormatoSalida. */
+    private static List<String> camposCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean citado = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (citado) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    citado = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                citado = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
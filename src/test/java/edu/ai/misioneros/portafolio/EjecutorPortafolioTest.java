@@ -0,0 +1,122 @@
+package edu.ai.misioneros.portafolio;
+
+import edu.ai.misioneros.algoritmoBidireccional.AlgoritmoBidireccional;
+import edu.ai.misioneros.busqueda.MotorBusqueda;
+import edu.ai.misioneros.busqueda.OpcionesBusqueda;
+import edu.ai.misioneros.logicaVoraz.AlgoritmoVoraz;
+import edu.ai.misioneros.modelo.Problema;
+import edu.ai.misioneros.modelo.ResultadoBusqueda;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EjecutorPortafolioTest {
+
+    /** Motor que no termina hasta que se cancela su token. */
+    private static final class MotorEsperando implements MotorBusqueda {
+        private final AtomicInteger enCurso;
+
+        MotorEsperando(AtomicInteger enCurso) {
+            this.enCurso = enCurso;
+        }
+
+        @Override
+        public String getNombre() {
+            return "Espera";
+        }
+
+        @Override
+        public ResultadoBusqueda resolver(Problema problema, OpcionesBusqueda opciones) {
+            enCurso.incrementAndGet();
+            try {
+                while (true) {
+                    opciones.getTokenCancelacion().verificar();
+                    Thread.onSpinWait();
+                }
+            } finally {
+                enCurso.decrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    void alRechazarMotoresCancelaYEsperaLosEnviados() {
+        AtomicInteger enCurso = new AtomicInteger();
+        List<MotorBusqueda> motores = new ArrayList<>();
+        for (int i = 0; i < 70; i++)
+            motores.add(new MotorEsperando(enCurso));
+        try (EjecutorPortafolio portafolio = new EjecutorPortafolio(1)) {
+            assertThrows(RejectedExecutionException.class, () -> portafolio.ejecutar(new Problema(3, 2),
+                    new OpcionesBusqueda(), motores, CalidadRequerida.PRIMERA_SOLUCION, 100));
+            assertEquals(0, enCurso.get());
+
+            // El pool queda libre para la siguiente ejecución
+            ResultadoPortafolio r = portafolio.ejecutar(new Problema(3, 2), new OpcionesBusqueda(),
+                    Arrays.asList(new AlgoritmoBidireccional()), CalidadRequerida.PRIMERA_SOLUCION, 0);
+            assertNotNull(r.getGanador());
+        }
+    }
+
+    @Test
+    void elPlazoCancelaLosMotores() {
+        AtomicInteger enCurso = new AtomicInteger();
+        try (EjecutorPortafolio portafolio = new EjecutorPortafolio(2)) {
+            ResultadoPortafolio r = portafolio.ejecutar(new Problema(3, 2), new OpcionesBusqueda(),
+                    Arrays.asList(new MotorEsperando(enCurso), new MotorEsperando(enCurso)),
+                    CalidadRequerida.PRIMERA_SOLUCION, 50);
+            assertTrue(r.isPlazoVencido());
+            assertEquals(null, r.getGanador());
+            for (EjecucionMotor e : r.getEjecuciones())
+                assertEquals(EjecucionMotor.Estado.PLAZO_VENCIDO, e.getEstado());
+            assertEquals(0, enCurso.get());
+        }
+    }
+
+    @Test
+    void primeraOptimaGanaConUnaSolucionDeLongitudOptima() {
+        AtomicInteger enCurso = new AtomicInteger();
+        try (EjecutorPortafolio portafolio = new EjecutorPortafolio(2)) {
+            ResultadoPortafolio r = portafolio.ejecutar(new Problema(20, 4), new OpcionesBusqueda(),
+                    Arrays.asList(new MotorEsperando(enCurso), new AlgoritmoBidireccional()),
+                    CalidadRequerida.PRIMERA_OPTIMA, 30_000);
+            assertNotNull(r.getGanador());
+            assertEquals("Bidireccional", r.getGanador().getNombre());
+            assertEquals(EjecucionMotor.Estado.CANCELADO, r.getEjecucion("Espera").getEstado());
+        }
+    }
+
+    @Test
+    void primeraOptimaSinSolucionTerminaAlVencerElPlazo() {
+        AtomicInteger enCurso = new AtomicInteger();
+        try (EjecutorPortafolio portafolio = new EjecutorPortafolio(2)) {
+            // Con K = 3 no hay solución para N > 5
+            ResultadoPortafolio r = portafolio.ejecutar(new Problema(20, 3), new OpcionesBusqueda(),
+                    Arrays.asList(new MotorEsperando(enCurso), new AlgoritmoBidireccional()),
+                    CalidadRequerida.PRIMERA_OPTIMA, 100);
+            assertTrue(r.isPlazoVencido());
+            assertEquals(null, r.getGanador());
+            assertEquals(EjecucionMotor.Estado.PLAZO_VENCIDO, r.getEjecucion("Espera").getEstado());
+            assertEquals(0, enCurso.get());
+        }
+    }
+
+    @Test
+    void todosEsperaATodosLosMotores() {
+        try (EjecutorPortafolio portafolio = new EjecutorPortafolio(1)) {
+            ResultadoPortafolio r = portafolio.ejecutar(new Problema(5, 3), new OpcionesBusqueda(),
+                    Arrays.asList(new AlgoritmoVoraz(), new AlgoritmoBidireccional()), CalidadRequerida.TODOS, 0);
+            assertEquals(2, r.getEjecuciones().size());
+            for (EjecucionMotor e : r.getEjecuciones())
+                assertEquals(EjecucionMotor.Estado.TERMINADO, e.getEstado());
+        }
+    }
+}